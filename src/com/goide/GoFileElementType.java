@@ -16,9 +16,11 @@
 
 package com.goide;
 
+import com.goide.psi.GoBlockElementType;
 import com.goide.psi.GoFile;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.index.GoPackagesIndex;
+import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.StubBuilder;
@@ -31,7 +33,7 @@ import java.io.IOException;
 
 public class GoFileElementType extends IStubFileElementType<GoFileStub> {
   public static final IStubFileElementType INSTANCE = new GoFileElementType();
-  public static final int VERSION = 21;
+  public static final int VERSION = 23;
 
   private GoFileElementType() {
     super("GO_FILE", GoLanguage.INSTANCE);
@@ -54,6 +56,11 @@ public class GoFileElementType extends IStubFileElementType<GoFileStub> {
         }
         return super.createStubForFile(file);
       }
+
+      @Override
+      public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+        return node.getElementType() == GoTypes.BLOCK && !GoBlockElementType.hasTypeDeclarations(node.getChars());
+      }
     };
   }
 
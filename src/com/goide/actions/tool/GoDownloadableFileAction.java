@@ -25,12 +25,17 @@ import com.intellij.notification.NotificationListener;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.Consumer;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.event.HyperlinkEvent;
+import java.util.Collection;
+import java.util.Map;
 
 public abstract class GoDownloadableFileAction extends GoExternalToolsAction {
   private static final String GO_GET_LINK = "goGetLink";
@@ -45,6 +50,23 @@ public abstract class GoDownloadableFileAction extends GoExternalToolsAction {
   @Override
   protected boolean doSomething(@NotNull VirtualFile virtualFile, @Nullable Module module, @NotNull Project project, @NotNull String title)
     throws ExecutionException {
+    return checkExecutable(project, module, title) && super.doSomething(virtualFile, module, project, title);
+  }
+
+  @Override
+  public void doSomething(@NotNull Collection<VirtualFile> files,
+                          @NotNull Project project,
+                          @NotNull String title,
+                          boolean modal,
+                          @NotNull Consumer<Map<VirtualFile, Boolean>> consumer) {
+    VirtualFile first = ContainerUtil.getFirstItem(files);
+    Module module = first != null ? ModuleUtilCore.findModuleForFile(first, project) : null;
+    if (checkExecutable(project, module, title)) {
+      super.doSomething(files, project, title, modal, consumer);
+    }
+  }
+
+  private boolean checkExecutable(@NotNull Project project, @Nullable Module module, @NotNull String title) {
     VirtualFile executable = getExecutable(project, module);
     if (executable == null) {
       String message = "Can't find `" + myExecutableName + "` in GOPATH. Try to invoke <a href=\"" + GO_GET_LINK + "\">go get " +
@@ -54,7 +76,7 @@ public abstract class GoDownloadableFileAction extends GoExternalToolsAction {
                                project);
       return false;
     }
-    return super.doSomething(virtualFile, module, project, title);
+    return true;
   }
 
   @Nullable
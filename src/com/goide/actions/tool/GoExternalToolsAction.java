@@ -19,27 +19,39 @@ package com.goide.actions.tool;
 import com.goide.GoConstants;
 import com.goide.GoFileType;
 import com.goide.sdk.GoSdkService;
+import com.goide.util.GoBatchExecutor;
 import com.goide.util.GoExecutor;
 import com.intellij.execution.ExecutionException;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.DumbAwareAction;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.Consumer;
 import com.intellij.util.ExceptionUtil;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public abstract class GoExternalToolsAction extends DumbAwareAction {
   private static final Logger LOG = Logger.getInstance(GoExternalToolsAction.class);
 
@@ -73,6 +85,16 @@ public abstract class GoExternalToolsAction extends DumbAwareAction {
     assert project != null;
     String title = StringUtil.notNullize(e.getPresentation().getText());
 
+    VirtualFile[] selected = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+    if (selected != null && selected.length > 1) {
+      List<VirtualFile> files = ContainerUtil.filter(selected, f -> f.isInLocalFileSystem() && isAvailableOnFile(f));
+      if (files.size() > 1) {
+        //noinspection unchecked
+        doSomething(files, project, title, false, Consumer.EMPTY_CONSUMER);
+        return;
+      }
+    }
+
     Module module = ModuleUtilCore.findModuleForFile(file, project);
     try {
       doSomething(file, module, project, title);
@@ -120,6 +142,78 @@ public abstract class GoExternalToolsAction extends DumbAwareAction {
     return true;
   }
 
+  /**
+   * Runs the tool on many files with as few processes as possible, files of different modules never share a process,
+   * neither do files with different {@link #getBatchKey batch keys}.
+   * Documents are saved once before the run and the files are refreshed once after it.
+   *
+   * @param consumer receives the result of every file that was processed before the run was cancelled
+   */
+  public void doSomething(@NotNull Collection<VirtualFile> files,
+                          @NotNull Project project,
+                          @NotNull String title,
+                          boolean modal,
+                          @NotNull Consumer<Map<VirtualFile, Boolean>> consumer) {
+    FileDocumentManager.getInstance().saveAllDocuments();
+    ProgressManager.getInstance().run(new Task.Backgroundable(project, title, true) {
+      @Override
+      public boolean shouldStartInBackground() {
+        return !modal;
+      }
+
+      @Override
+      public boolean isConditionalModal() {
+        return modal;
+      }
+
+      @Override
+      public void run(@NotNull ProgressIndicator indicator) {
+        Map<String, VirtualFile> paths = ContainerUtil.newHashMap();
+        Map<String, Module> modules = ContainerUtil.newHashMap();
+        Map<Pair<Module, Object>, List<String>> groups = ContainerUtil.newLinkedHashMap();
+        ReadAction.run(() -> {
+          for (VirtualFile file : files) {
+            String path = file.getCanonicalPath();
+            if (path == null) continue;
+            Module module = ModuleUtilCore.findModuleForFile(file, project);
+            paths.put(path, file);
+            modules.put(path, module);
+            groups.computeIfAbsent(Pair.create(module, getBatchKey(project, file)), key -> ContainerUtil.newArrayList()).add(path);
+          }
+        });
+        Map<String, Boolean> pathResults = GoBatchExecutor.execute(groups.values(),
+          batch -> createBatchExecutor(project, modules.get(batch.get(0)), title, batch),
+          path -> createExecutor(project, modules.get(path), title, paths.get(path)), indicator);
+        Map<VirtualFile, Boolean> result = ContainerUtil.newHashMap();
+        for (Map.Entry<String, Boolean> pathResult : pathResults.entrySet()) {
+          result.put(paths.get(pathResult.getKey()), pathResult.getValue());
+        }
+        VfsUtil.markDirtyAndRefresh(true, true, true, VfsUtilCore.toVirtualFileArray(files));
+        consumer.consume(result);
+      }
+    });
+  }
+
+  /**
+   * @return an executor processing all given files in one process, or {@code null} if the tool takes one file at a time
+   */
+  @Nullable
+  protected GoExecutor createBatchExecutor(@NotNull Project project,
+                                           @Nullable Module module,
+                                           @NotNull String title,
+                                           @NotNull List<String> filePaths) {
+    return null;
+  }
+
+  /**
+   * Files with different keys are never passed to one process, e.g. when the tool treats its arguments as one package.
+   * Called in a read action in a background thread.
+   */
+  @Nullable
+  protected Object getBatchKey(@NotNull Project project, @NotNull VirtualFile file) {
+    return null;
+  }
+
   protected GoExecutor createExecutor(@NotNull Project project,
                                       @Nullable Module module,
                                       @NotNull String title,
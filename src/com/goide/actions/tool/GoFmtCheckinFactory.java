@@ -16,11 +16,9 @@
 
 package com.goide.actions.tool;
 
-import com.goide.psi.GoFile;
+import com.goide.GoFileType;
 import com.intellij.CommonBundle;
 import com.intellij.ide.util.PropertiesComponent;
-import com.intellij.openapi.fileEditor.FileDocumentManager;
-import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.text.StringUtil;
@@ -31,8 +29,6 @@ import com.intellij.openapi.vcs.checkin.CheckinHandler;
 import com.intellij.openapi.vcs.checkin.CheckinHandlerFactory;
 import com.intellij.openapi.vcs.ui.RefreshableOnComponent;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
 import com.intellij.util.PairConsumer;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.ui.UIUtil;
@@ -83,13 +79,11 @@ public class GoFmtCheckinFactory extends CheckinHandlerFactory {
       public ReturnResult beforeCheckin(@Nullable CommitExecutor executor, PairConsumer<Object, Object> additionalDataConsumer) {
         if (enabled(panel)) {
           Ref<Boolean> success = Ref.create(true);
-          FileDocumentManager.getInstance().saveAllDocuments();
-          for (PsiFile file : getPsiFiles()) {
-            VirtualFile virtualFile = file.getVirtualFile();
-            new GoFmtFileAction().doSomething(virtualFile, ModuleUtilCore.findModuleForPsiElement(file), file.getProject(), "Go fmt", true,
-                                              result -> {
-                                                if (!result) success.set(false);
-                                              });
+          List<VirtualFile> files = getGoFiles();
+          if (!files.isEmpty()) {
+            new GoFmtFileAction().doSomething(files, panel.getProject(), "Go fmt", true, results -> {
+              if (results.size() < files.size() || results.containsValue(false)) success.set(false);
+            });
           }
           if (!success.get()) {
             return showErrorMessage(executor);
@@ -115,17 +109,15 @@ public class GoFmtCheckinFactory extends CheckinHandlerFactory {
       }
 
       @NotNull
-      private List<PsiFile> getPsiFiles() {
+      private List<VirtualFile> getGoFiles() {
         Collection<VirtualFile> files = panel.getVirtualFiles();
-        List<PsiFile> psiFiles = ContainerUtil.newArrayList();
-        PsiManager manager = PsiManager.getInstance(panel.getProject());
+        List<VirtualFile> goFiles = ContainerUtil.newArrayList();
         for (VirtualFile file : files) {
-          PsiFile psiFile = manager.findFile(file);
-          if (psiFile instanceof GoFile) {
-            psiFiles.add(psiFile);
+          if (file.getFileType() == GoFileType.INSTANCE) {
+            goFiles.add(file);
           }
         }
-        return psiFiles;
+        return goFiles;
       }
     };
   }
@@ -16,16 +16,47 @@
 
 package com.goide.actions.tool;
 
+import com.goide.GoConstants;
+import com.goide.GoEnvironmentUtil;
+import com.goide.sdk.GoSdkService;
 import com.goide.util.GoExecutor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.util.List;
+
 public class GoFmtFileAction extends GoExternalToolsAction {
   @Override
   @NotNull
   protected GoExecutor createExecutor(@NotNull Project project, @Nullable Module module, @NotNull String title, @NotNull String filePath) {
     return GoExecutor.in(project, module).withPresentableName(title).withParameters("fmt", filePath).showOutputOnError();
   }
+
+  /**
+   * `go fmt` requires the named files to be in one directory, so batches run `gofmt -l -w` the same way `go fmt` does
+   */
+  @Nullable
+  @Override
+  protected GoExecutor createBatchExecutor(@NotNull Project project,
+                                           @Nullable Module module,
+                                           @NotNull String title,
+                                           @NotNull List<String> filePaths) {
+    String gofmt = findGofmt(project, module);
+    if (gofmt == null) return null;
+    return GoExecutor.in(project, module).withPresentableName(title).withExePath(gofmt).withParameters("-l", "-w")
+      .withParameters(ArrayUtil.toStringArray(filePaths)).showOutputOnError();
+  }
+
+  @Nullable
+  private static String findGofmt(@NotNull Project project, @Nullable Module module) {
+    String goExecutablePath = GoSdkService.getInstance(project).getGoExecutablePath(module);
+    File binDirectory = goExecutablePath != null ? new File(goExecutablePath).getParentFile() : null;
+    if (binDirectory == null) return null;
+    File gofmt = new File(binDirectory, GoEnvironmentUtil.getBinaryFileNameForPath(GoConstants.GOFMT_EXECUTABLE_NAME));
+    return gofmt.isFile() ? gofmt.getPath() : null;
+  }
 }
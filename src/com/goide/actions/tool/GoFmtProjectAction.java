@@ -18,17 +18,25 @@ package com.goide.actions.tool;
 
 import com.goide.sdk.GoSdkService;
 import com.goide.sdk.GoSdkUtil;
+import com.goide.util.GoBatchExecutor;
 import com.goide.util.GoExecutor;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.DumbAwareAction;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
 
 public class GoFmtProjectAction extends DumbAwareAction {
   @Override
@@ -43,16 +51,30 @@ public class GoFmtProjectAction extends DumbAwareAction {
     assert project != null;
 
     FileDocumentManager.getInstance().saveAllDocuments();
+    // content roots are formatted on a bounded pool in a single task and refreshed together once all of them are done
+    Map<String, Module> modules = ContainerUtil.newLinkedHashMap();
+    Map<String, VirtualFile> roots = ContainerUtil.newLinkedHashMap();
     for (Module module : GoSdkUtil.getGoModules(project)) {
       for (VirtualFile file : ModuleRootManager.getInstance(module).getContentRoots()) {
-        fmt(project, module, "go fmt " + file.getPath(), file);
+        modules.put(file.getPath(), module);
+        roots.put(file.getPath(), file);
       }
     }
+    if (roots.isEmpty()) return;
+
+    ProgressManager.getInstance().run(new Task.Backgroundable(project, "go fmt", true) {
+      @Override
+      public void run(@NotNull ProgressIndicator indicator) {
+        GoBatchExecutor.execute(Collections.singletonList(roots.keySet()), paths -> null, path -> fmt(project, modules.get(path), path),
+                                indicator);
+        VfsUtil.markDirtyAndRefresh(true, true, true, VfsUtilCore.toVirtualFileArray(roots.values()));
+      }
+    });
   }
 
-  private static void fmt(@NotNull Project project, @Nullable Module module, @NotNull String presentation, @NotNull VirtualFile dir) {
-    GoExecutor.in(project, module).withPresentableName(presentation).withWorkDirectory(dir.getPath())
-      .withParameters("fmt", "./...").showOutputOnError().executeWithProgress(false,
-                                                                              result -> VfsUtil.markDirtyAndRefresh(true, true, true, dir));
+  @NotNull
+  private static GoExecutor fmt(@NotNull Project project, @NotNull Module module, @NotNull String dir) {
+    return GoExecutor.in(project, module).withPresentableName("go fmt " + dir).withWorkDirectory(dir).withParameters("fmt", "./...")
+      .showOutputOnError();
   }
 }
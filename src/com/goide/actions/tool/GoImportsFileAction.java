@@ -20,9 +20,12 @@ import com.goide.util.GoExecutor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 public class GoImportsFileAction extends GoDownloadableFileAction {
   public GoImportsFileAction() {
     super("goimports", "golang.org/x/tools/cmd/goimports");
@@ -31,8 +34,26 @@ public class GoImportsFileAction extends GoDownloadableFileAction {
   @NotNull
   @Override
   protected GoExecutor createExecutor(@NotNull Project project, @Nullable Module module, @NotNull String title, @NotNull String filePath) {
+    return createToolExecutor(project, module, title, filePath);
+  }
+
+  @NotNull
+  private GoExecutor createToolExecutor(@NotNull Project project,
+                                        @Nullable Module module,
+                                        @NotNull String title,
+                                        @NotNull String... filePaths) {
     VirtualFile executable = getExecutable(project, module);
     assert executable != null;
-    return GoExecutor.in(project, module).withExePath(executable.getPath()).withParameters("-w", filePath).showOutputOnError();
+    return GoExecutor.in(project, module).withExePath(executable.getPath()).withParameters("-w").withParameters(filePaths)
+      .showOutputOnError();
+  }
+
+  @Nullable
+  @Override
+  protected GoExecutor createBatchExecutor(@NotNull Project project,
+                                           @Nullable Module module,
+                                           @NotNull String title,
+                                           @NotNull List<String> filePaths) {
+    return createToolExecutor(project, module, title, ArrayUtil.toStringArray(filePaths));
   }
 }
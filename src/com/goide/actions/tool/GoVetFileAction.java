@@ -16,13 +16,20 @@
 
 package com.goide.actions.tool;
 
+import com.goide.psi.GoFile;
 import com.goide.util.GoExecutor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 public class GoVetFileAction extends GoExternalToolsAction {
   @Override
   protected boolean isAvailableOnFile(VirtualFile file) {
@@ -32,7 +39,35 @@ public class GoVetFileAction extends GoExternalToolsAction {
   @Override
   @NotNull
   protected GoExecutor createExecutor(@NotNull Project project, @Nullable Module module, @NotNull String title, @NotNull String filePath) {
-    return GoExecutor.in(project, module).withPresentableName(title).withParameters("tool", "vet", filePath)
+    return createToolExecutor(project, module, title, filePath);
+  }
+
+  /**
+   * `go tool vet` type-checks its file arguments as one package, so only files of one package in one directory share a process
+   */
+  @Nullable
+  @Override
+  protected Object getBatchKey(@NotNull Project project, @NotNull VirtualFile file) {
+    if (file.isDirectory()) return file;
+    PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+    return Pair.create(file.getParent(), psiFile instanceof GoFile ? ((GoFile)psiFile).getPackageName() : null);
+  }
+
+  @Nullable
+  @Override
+  protected GoExecutor createBatchExecutor(@NotNull Project project,
+                                           @Nullable Module module,
+                                           @NotNull String title,
+                                           @NotNull List<String> filePaths) {
+    return createToolExecutor(project, module, title, ArrayUtil.toStringArray(filePaths));
+  }
+
+  @NotNull
+  private static GoExecutor createToolExecutor(@NotNull Project project,
+                                               @Nullable Module module,
+                                               @NotNull String title,
+                                               @NotNull String... filePaths) {
+    return GoExecutor.in(project, module).withPresentableName(title).withParameters("tool", "vet").withParameters(filePaths)
       .showNotifications(false, true).showOutputOnError();
   }
 }
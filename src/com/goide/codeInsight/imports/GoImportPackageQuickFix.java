@@ -26,7 +26,9 @@ import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.psi.impl.GoReference;
 import com.goide.psi.impl.GoTypeReference;
 import com.goide.runconfig.testing.GoTestFinder;
-import com.goide.stubs.index.GoPackagesIndex;
+import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.index.GoPackageDirectoryIndex;
+import com.goide.util.GoTargetSystem;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.FileModificationService;
 import com.intellij.codeInsight.daemon.impl.DaemonListeners;
@@ -48,12 +50,13 @@ import com.intellij.openapi.ui.popup.PopupChooserBuilder;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.stubs.StubIndex;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBList;
 import com.intellij.util.IncorrectOperationException;
@@ -165,22 +168,20 @@ public class GoImportPackageQuickFix extends LocalQuickFixAndIntentionActionOnPs
     Module module = contextFile != null ? ModuleUtilCore.findModuleForPsiElement(contextFile) : null;
     boolean vendoringEnabled = GoVendoringUtil.isVendoringEnabled(module);
     GlobalSearchScope scope = GoUtil.goPathResolveScope(context);
-    Collection<GoFile> packages = StubIndex.getElements(GoPackagesIndex.KEY, packageName, project, scope, GoFile.class);
-    return sorted(skipNulls(map2Set(
-      packages,
-      file -> {
-        if (parentDirectory != null && parentDirectory.isEquivalentTo(file.getParent())) {
-          if (testTargetPackage == null || !testTargetPackage.equals(file.getPackageName())) {
-            return null;
-          }
-        }
-        if (!GoPsiImplUtil.canBeAutoImported(file, false, module)) {
-          return null;
-        }
-        String importPath = file.getImportPath(vendoringEnabled);
-        return !imported.contains(importPath) ? importPath : null;
+    GoTargetSystem target = module != null ? GoTargetSystem.forModule(module) : null;
+    PsiManager psiManager = PsiManager.getInstance(project);
+    Set<String> result = newLinkedHashSet();
+    for (VirtualFile directory : GoPackageDirectoryIndex.getPackageDirectories(packageName, target, scope)) {
+      PsiDirectory psiDirectory = psiManager.findDirectory(directory);
+      if (psiDirectory == null) continue;
+      if (psiDirectory.isEquivalentTo(parentDirectory) && !packageName.equals(testTargetPackage)) continue;
+      if (!GoPsiImplUtil.canBeAutoImported(psiDirectory, packageName, false)) continue;
+      String importPath = GoSdkUtil.getImportPath(psiDirectory, vendoringEnabled);
+      if (importPath != null && !imported.contains(importPath)) {
+        result.add(importPath);
       }
-    )), new MyImportsComparator(context, vendoringEnabled));
+    }
+    return sorted(result, new MyImportsComparator(context, vendoringEnabled));
   }
 
   public boolean doAutoImportOrShowHint(@NotNull Editor editor, boolean showHint) {
@@ -22,6 +22,7 @@ import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.psi.impl.GoTypeReference;
 import com.goide.runconfig.testing.GoTestFinder;
 import com.goide.stubs.index.GoIdFilter;
+import com.goide.stubs.index.GoPublicNamesTable;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.completion.*;
 import com.intellij.openapi.module.Module;
@@ -94,15 +95,16 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
           scope = new GoUtil.ExceptChildOfDirectory(containingDirectory, scope, GoTestFinder.getTestTargetPackage(file));
         }
         IdFilter idFilter = GoIdFilter.getProductionFilter(project);
-        Set<String> sortedKeys = collectAndSortAllPublicProductionNames(matcher, scope, idFilter, file);
-        for (String name : sortedKeys) {
+        GlobalSearchScope finalScope = scope;
+        GoPublicNamesTable.getInstance(project).processNames(matcher, getPackagesWithAliases(file), name -> {
           processor.setName(name);
-          for (GoNamedElement element : StubIndex.getElements(ALL_PUBLIC_NAMES, name, project, scope, idFilter, GoNamedElement.class)) {
+          for (GoNamedElement element : StubIndex.getElements(ALL_PUBLIC_NAMES, name, project, finalScope, idFilter, GoNamedElement.class)) {
             if (!processor.process(element)) {
               break;
             }
           }
-        }
+          return true;
+        });
       }
 
       private CompletionResultSet adjustMatcher(@NotNull CompletionParameters parameters,
@@ -115,64 +117,29 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
     });
   }
 
+  /**
+   * Names from packages imported with an alias or with a dot are completed regardless of the prefix,
+   * since they are inserted with the alias or without a qualifier
+   */
   @NotNull
-  private static Set<String> collectAndSortAllPublicProductionNames(@NotNull PrefixMatcher matcher,
-                                                                    @NotNull GlobalSearchScope scope, 
-                                                                    @Nullable IdFilter idFilter,
-                                                                    @NotNull GoFile file) {
-    String prefix = matcher.getPrefix();
-    boolean emptyPrefix = prefix.isEmpty();
-
+  private static Set<String> getPackagesWithAliases(@NotNull GoFile file) {
     Set<String> packagesWithAliases = ContainerUtil.newHashSet();
-    if (!emptyPrefix) {
-      for (Map.Entry<String, Collection<GoImportSpec>> entry : file.getImportMap().entrySet()) {
-        for (GoImportSpec spec : entry.getValue()) {
-          String alias = spec.getAlias();
-          if (spec.isDot() || alias != null) {
-            packagesWithAliases.add(entry.getKey());
-            break;
-          }
+    for (Map.Entry<String, Collection<GoImportSpec>> entry : file.getImportMap().entrySet()) {
+      for (GoImportSpec spec : entry.getValue()) {
+        String alias = spec.getAlias();
+        if (spec.isDot() || alias != null) {
+          packagesWithAliases.add(entry.getKey());
+          break;
         }
       }
     }
-
-    Set<String> allNames = ContainerUtil.newTroveSet();
-    StubIndex.getInstance().processAllKeys(ALL_PUBLIC_NAMES, new CancellableCollectProcessor<String>(allNames) {
-      @Override
-      protected boolean accept(String s) {
-        return emptyPrefix || matcher.prefixMatches(s) || packagesWithAliases.contains(substringBefore(s, '.'));
-      }
-    }, scope, idFilter);
-
-    if (emptyPrefix) {
-      return allNames;
-    }
-
-    List<String> sorted = ContainerUtil.sorted(allNames, String.CASE_INSENSITIVE_ORDER);
-    ProgressManager.checkCanceled();
-
-    LinkedHashSet<String> result = ContainerUtil.newLinkedHashSet();
-    for (String name : sorted) {
-      ProgressManager.checkCanceled();
-      if (matcher.isStartMatch(name)) {
-        result.add(name);
-      }
-    }
-    result.addAll(sorted);
-    return result;
+    return packagesWithAliases;
   }
 
   private static PsiElementPattern.Capture<PsiElement> inGoFile() {
     return psiElement().inFile(psiElement(GoFile.class));
   }
 
-  @NotNull
-  private static String substringBefore(@NotNull String s, char c) {
-    int i = s.indexOf(c);
-    if (i == -1) return s;
-    return s.substring(0, i);
-  }
-
   private static String substringAfter(@NotNull String s, char c) {
     int i = s.indexOf(c);
     if (i == -1) return "";
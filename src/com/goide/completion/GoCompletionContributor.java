@@ -32,6 +32,7 @@ import com.intellij.codeInsight.lookup.AutoCompletionPolicy;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.util.Conditions;
 import com.intellij.patterns.PatternCondition;
 import com.intellij.patterns.PsiElementPattern;
@@ -47,7 +48,7 @@ import java.util.Collection;
 import static com.intellij.codeInsight.completion.PrioritizedLookupElement.withPriority;
 import static com.intellij.patterns.PlatformPatterns.psiElement;
 
-public class GoCompletionContributor extends CompletionContributor {
+public class GoCompletionContributor extends CompletionContributor implements DumbAware {
   public GoCompletionContributor() {
     extend(CompletionType.BASIC, importString(), new GoImportPathsCompletionProvider());
     extend(CompletionType.BASIC, referenceExpression(), new GoReferenceCompletionProvider());
@@ -16,29 +16,28 @@
 
 package com.goide.completion;
 
-import com.goide.GoFileType;
 import com.goide.project.GoExcludedPathsSettings;
 import com.goide.project.GoVendoringUtil;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoImportString;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.index.GoImportPathIndex;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
 import com.intellij.codeInsight.completion.CompletionResultSet;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
-import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
@@ -49,7 +48,7 @@ public class GoImportPathsCompletionProvider extends CompletionProvider<Completi
   @Override
   protected void addCompletions(@NotNull CompletionParameters parameters, ProcessingContext context, @NotNull CompletionResultSet result) {
     GoImportString importString = PsiTreeUtil.getParentOfType(parameters.getPosition(), GoImportString.class);
-    if (importString == null) return;
+    if (importString == null || DumbService.isDumb(importString.getProject())) return;
     String path = importString.getPath();
     if (path.startsWith("./") || path.startsWith("../")) return;
 
@@ -74,22 +73,30 @@ public class GoImportPathsCompletionProvider extends CompletionProvider<Completi
     GoExcludedPathsSettings excludedSettings = GoExcludedPathsSettings.getInstance(project);
     PsiFile contextFile = context != null ? context.getContainingFile() : null;
     boolean testFileWithTestPackage = GoTestFinder.isTestFileWithTestPackage(contextFile);
-    for (VirtualFile file : FileTypeIndex.getFiles(GoFileType.INSTANCE, scope)) {
-      ProgressManager.checkCanceled();
-      PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
-      if (!(psiFile instanceof GoFile)) continue;
-      
-      PsiDirectory directory = psiFile.getContainingDirectory();
-      if (directory == null) continue;
+    PsiManager psiManager = PsiManager.getInstance(project);
+    GoImportPathIndex.processPackageDirectories(scope, virtualDirectory -> {
+      PsiDirectory directory = psiManager.findDirectory(virtualDirectory);
+      if (directory == null || !canBeAutoImported(directory, scope, allowMain, module)) return true;
 
-      GoFile goFile = (GoFile)psiFile;
-      if (!GoPsiImplUtil.canBeAutoImported(goFile, allowMain, module)) continue;
-      
-      String importPath = goFile.getImportPath(vendoringEnabled);
-      if (StringUtil.isNotEmpty(importPath) && !excludedSettings.isExcluded(importPath) 
+      String importPath = GoSdkUtil.getImportPath(directory, vendoringEnabled);
+      if (StringUtil.isNotEmpty(importPath) && !excludedSettings.isExcluded(importPath)
           && (testFileWithTestPackage || !importPath.equals(contextImportPath))) {
         result.addElement(GoCompletionUtil.createPackageLookupElement(importPath, contextImportPath, directory, false));
       }
+      return true;
+    });
+  }
+
+  private static boolean canBeAutoImported(@NotNull PsiDirectory directory,
+                                           @NotNull GlobalSearchScope scope,
+                                           boolean allowMain,
+                                           @NotNull Module module) {
+    for (PsiFile file : directory.getFiles()) {
+      if (file instanceof GoFile && scope.contains(file.getVirtualFile())
+          && GoPsiImplUtil.canBeAutoImported((GoFile)file, allowMain, module)) {
+        return true;
+      }
     }
+    return false;
   }
 }
@@ -32,6 +32,7 @@ import com.intellij.codeInsight.completion.impl.CamelHumpMatcher;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiDirectory;
@@ -56,6 +57,7 @@ public class GoTestFunctionCompletionProvider extends CompletionProvider<Complet
   @Override
   protected void addCompletions(@NotNull CompletionParameters parameters, ProcessingContext context, @NotNull CompletionResultSet result) {
     Project project = parameters.getPosition().getProject();
+    if (DumbService.isDumb(project)) return;
     PsiFile file = parameters.getOriginalFile();
     PsiDirectory containingDirectory = file.getContainingDirectory();
     if (file instanceof GoFile && containingDirectory != null) {
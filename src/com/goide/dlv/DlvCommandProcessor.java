@@ -18,7 +18,11 @@ package com.goide.dlv;
 
 import com.goide.dlv.protocol.DlvRequest;
 import com.goide.dlv.protocol.DlvResponse;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
@@ -29,11 +33,19 @@ import org.jetbrains.rpc.CommandProcessor;
 import org.jetbrains.rpc.CommandProcessorKt;
 import org.jetbrains.rpc.RequestCallback;
 
+import java.io.IOException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx, DlvResponse, DlvResponse> {
+  private static final String METHOD_PREFIX = "RPCServer.";
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final Map<String, TypeAdapter<?>> RESULT_ADAPTERS = createResultAdapters();
+
   @Nullable
   @Override
   public DlvResponse readIfHasSequence(@NotNull JsonReaderEx message) {
@@ -80,24 +92,47 @@ public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx,
   public <RESULT> RESULT readResult(@NotNull String method, @NotNull DlvResponse successResponse) {
     JsonReaderEx result = successResponse.result();
     assert result != null : "success result should be not null";
-    JsonReader reader = result.asGson();
-    Object o = new GsonBuilder().create().fromJson(reader, getResultType(method.replaceFirst("RPCServer\\.", "")));
     //noinspection unchecked
-    return (RESULT)o;
+    return (RESULT)decodeResult(method, result);
+  }
+
+  /**
+   * Decodes a successful response to the result type of the request with the given method name.
+   * Thread-safe, adapters of all result types are created once and shared by every debug session.
+   */
+  @Nullable
+  public static Object decodeResult(@NotNull String method, @NotNull JsonReaderEx result) {
+    TypeAdapter<?> adapter = RESULT_ADAPTERS.get(StringUtil.trimStart(method, METHOD_PREFIX));
+    if (adapter == null) {
+      CommandProcessorKt.getLOG().error("Unknown response " + method + ", please register an appropriate request into com.goide.dlv.protocol.DlvRequest");
+      adapter = GSON.getAdapter(Object.class);
+    }
+    JsonReader reader = result.asGson();
+    reader.setLenient(true);
+    try {
+      return adapter.read(reader);
+    }
+    catch (IOException e) {
+      throw new JsonSyntaxException(e);
+    }
   }
 
   @NotNull
-  private static Type getResultType(@NotNull String method) {
+  private static Map<String, TypeAdapter<?>> createResultAdapters() {
+    Map<String, TypeAdapter<?>> result = ContainerUtil.newHashMap();
     for (Class<?> c : DlvRequest.class.getDeclaredClasses()) {
-      if (method.equals(c.getSimpleName())) {
-        Type s = c.getGenericSuperclass();
-        assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
-        Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
-        assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
-        return arguments[0];
-      }
+      if (Modifier.isAbstract(c.getModifiers()) || !DlvRequest.class.isAssignableFrom(c)) continue;
+      result.put(c.getSimpleName(), GSON.getAdapter(TypeToken.get(getResultType(c))));
     }
-    CommandProcessorKt.getLOG().error("Unknown response " + method + ", please register an appropriate request into com.goide.dlv.protocol.DlvRequest");
-    return Object.class;
+    return Collections.unmodifiableMap(result);
+  }
+
+  @NotNull
+  private static Type getResultType(@NotNull Class<?> c) {
+    Type s = c.getGenericSuperclass();
+    assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
+    Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
+    assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
+    return arguments[0];
   }
-}
\ No newline at end of file
+}
@@ -78,7 +78,7 @@ class DlvStackFrame extends XStackFrame {
                            @NotNull XEvaluationCallback callback,
                            @Nullable XSourcePosition expressionPosition) {
         myProcessor.send(new DlvRequest.EvalSymbol(expression, myId))
-          .done(variable -> callback.evaluated(createXValue(variable, AllIcons.Debugger.Watch)))
+          .done(variable -> callback.evaluated(new DlvXValue(myProcess, variable, myProcessor, myId, AllIcons.Debugger.Watch, expression)))
           .rejected(throwable -> callback.errorOccurred(throwable.getMessage()));
       }
       
@@ -65,40 +65,42 @@ class DlvXValue extends XNamedValue {
   private final DlvDebugProcess myProcess;
   private final DlvCommandProcessor myProcessor;
   private final int myFrameId;
+  @NotNull
+  private final DlvXValueChildren myChildren;
 
   public DlvXValue(@NotNull DlvDebugProcess process,
                    @NotNull DlvApi.Variable variable,
                    @NotNull DlvCommandProcessor processor, 
                    int frameId, 
                    @Nullable Icon icon) {
+    this(process, variable, processor, frameId, icon, variable.name);
+  }
+
+  public DlvXValue(@NotNull DlvDebugProcess process,
+                   @NotNull DlvApi.Variable variable,
+                   @NotNull DlvCommandProcessor processor,
+                   int frameId,
+                   @Nullable Icon icon,
+                   @Nullable String expression) {
     super(variable.name);
     myProcess = process;
     myVariable = variable;
     myIcon = icon;
     myProcessor = processor;
     myFrameId = frameId;
+    myChildren = new DlvXValueChildren(variable, processor, frameId, StringUtil.nullize(expression), (child, childExpression) ->
+      new DlvXValue(process, child, processor, frameId, AllIcons.Nodes.Field, childExpression));
   }
 
   @Override
   public void computePresentation(@NotNull XValueNode node, @NotNull XValuePlace place) {
     XValuePresentation presentation = getPresentation();
-    boolean hasChildren = myVariable.children.length > 0;
-    node.setPresentation(myIcon, presentation, hasChildren);
+    node.setPresentation(myIcon, presentation, myChildren.hasChildren());
   }
 
   @Override
   public void computeChildren(@NotNull XCompositeNode node) {
-    DlvApi.Variable[] children = myVariable.children;
-    if (children.length == 0) {
-      super.computeChildren(node);
-    }
-    else {
-      XValueChildrenList list = new XValueChildrenList();
-      for (DlvApi.Variable child : children) {
-        list.add(child.name, new DlvXValue(myProcess, child, myProcessor, myFrameId, AllIcons.Nodes.Field));
-      }
-      node.addChildren(list, true);
-    }
+    myChildren.computeChildren(node);
   }
 
   @Nullable
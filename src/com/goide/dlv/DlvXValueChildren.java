@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.dlv;
+
+import com.goide.dlv.protocol.DlvApi;
+import com.goide.dlv.protocol.DlvRequest;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.xdebugger.frame.XCompositeNode;
+import com.intellij.xdebugger.frame.XValue;
+import com.intellij.xdebugger.frame.XValueChildrenList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiFunction;
+
+/**
+ * Children of a {@link DlvXValue}. The first page of children comes with the variable itself. Arrays, slices and maps longer
+ * than the server's load limit get a "more" link, every click reslices the value starting at the first element not shown yet.
+ */
+class DlvXValueChildren {
+  @NotNull private final DlvApi.Variable myVariable;
+  @NotNull private final DlvCommandProcessor myProcessor;
+  private final int myFrameId;
+  /**
+   * Expression evaluating to the value, used to load further children, {@code null} if the value can't be addressed
+   */
+  @Nullable private final String myExpression;
+  /**
+   * Creates a value of a child from the child variable and its expression
+   */
+  @NotNull private final BiFunction<DlvApi.Variable, String, XValue> myChildFactory;
+  /**
+   * Number of elements shown so far, for maps it counts key-value pairs
+   */
+  private int myLoadedChildrenCount;
+  private boolean myFirstPageShown;
+
+  DlvXValueChildren(@NotNull DlvApi.Variable variable,
+                    @NotNull DlvCommandProcessor processor,
+                    int frameId,
+                    @Nullable String expression,
+                    @NotNull BiFunction<DlvApi.Variable, String, XValue> childFactory) {
+    myVariable = variable;
+    myProcessor = processor;
+    myFrameId = frameId;
+    myExpression = expression;
+    myChildFactory = childFactory;
+  }
+
+  public boolean hasChildren() {
+    return myVariable.children.length > 0 || getTotalChildrenCount() > 0 && canLoadMoreChildren();
+  }
+
+  public void computeChildren(@NotNull XCompositeNode node) {
+    if (!myFirstPageShown) {
+      myFirstPageShown = true;
+      DlvApi.Variable[] children = myVariable.children;
+      if (children.length == 0 && !canLoadMoreChildren()) {
+        node.addChildren(XValueChildrenList.EMPTY, true);
+      }
+      else {
+        addChildren(node, myVariable, children);
+      }
+      return;
+    }
+    myProcessor.send(new DlvRequest.EvalSymbol("(" + myExpression + ")[" + myLoadedChildrenCount + ":]", myFrameId))
+      .done(page -> {
+        if (page.children.length == 0) {
+          node.addChildren(XValueChildrenList.EMPTY, true);
+        }
+        else {
+          addChildren(node, page, page.children);
+        }
+      })
+      .rejected(throwable -> node.setErrorMessage(StringUtil.notNullize(throwable.getMessage())));
+  }
+
+  private void addChildren(@NotNull XCompositeNode node, @NotNull DlvApi.Variable container, @NotNull DlvApi.Variable[] children) {
+    int offset = myLoadedChildrenCount;
+    XValueChildrenList list = new XValueChildrenList();
+    for (int i = 0; i < children.length; i++) {
+      DlvApi.Variable child = children[i];
+      list.add(child.name, myChildFactory.apply(child, getChildExpression(container, child, offset + i)));
+    }
+    myLoadedChildrenCount += container.isMap() ? children.length / 2 : children.length;
+    int remaining = getTotalChildrenCount() - myLoadedChildrenCount;
+    if (remaining > 0 && canLoadMoreChildren()) {
+      node.addChildren(list, false);
+      node.tooManyChildren(remaining);
+    }
+    else {
+      node.addChildren(list, true);
+    }
+  }
+
+  private int getTotalChildrenCount() {
+    return myVariable.isArray() || myVariable.isSlice() || myVariable.isMap() ? (int)Math.min(myVariable.len, Integer.MAX_VALUE) : 0;
+  }
+
+  private boolean canLoadMoreChildren() {
+    return myExpression != null && (myVariable.isArray() || myVariable.isSlice() || myVariable.isMap());
+  }
+
+  @Nullable
+  private String getChildExpression(@NotNull DlvApi.Variable container, @NotNull DlvApi.Variable child, int index) {
+    if (myExpression == null) return null;
+    if (container.isArray() || container.isSlice()) return "(" + myExpression + ")[" + index + "]";
+    if (container.isStructure()) return "(" + myExpression + ")." + child.name;
+    if (container.isPtr()) return "(*" + myExpression + ")";
+    // map entries can't be addressed by a key in general
+    return null;
+  }
+}
@@ -18,6 +18,7 @@ package com.goide.dlv.protocol;
 
 import com.google.gson.annotations.SerializedName;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.registry.Registry;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -172,6 +173,10 @@ public class DlvApi {
       return getKind() == Kind.Array;
     }
 
+    public boolean isMap() {
+      return getKind() == Kind.Map;
+    }
+
     public boolean isNumber() { return getKind().isNumber(); }
 
     public boolean isString() { return getKind() == Kind.String; }
@@ -226,6 +231,29 @@ public class DlvApi {
     public List<Variable> arguments;
   }
 
+  // LoadConfig describes how to load values.
+  public static class LoadConfig {
+    // FollowPointers requests pointers to be automatically dereferenced.
+    public boolean followPointers = true;
+    // MaxVariableRecurse is how far to recurse when evaluating nested types.
+    public int maxVariableRecurse;
+    // MaxStringLen is the maximum number of bytes read from a string
+    public int maxStringLen;
+    // MaxArrayValues is the maximum number of elements read from an array, a slice or a map.
+    public int maxArrayValues;
+    // MaxStructFields is the maximum number of fields read from a struct, -1 will read all fields.
+    public int maxStructFields = -1;
+
+    @NotNull
+    public static LoadConfig fromRegistry() {
+      LoadConfig config = new LoadConfig();
+      config.maxVariableRecurse = Registry.intValue("go.debugger.load.max.recursion.depth", 1);
+      config.maxStringLen = Registry.intValue("go.debugger.load.max.string.length", 64);
+      config.maxArrayValues = Registry.intValue("go.debugger.load.max.children", 64);
+      return config;
+    }
+  }
+
   public static class EvalScope {
     public int GoroutineID;
     public int Frame;
@@ -29,7 +29,7 @@ import java.util.List;
  * Please add your requests as a subclasses, otherwise reflection won't work.
  *
  * @param <T> type of callback
- * @see com.goide.dlv.DlvCommandProcessor#getResultType(String)
+ * @see com.goide.dlv.DlvCommandProcessor#decodeResult(String, com.goide.dlv.JsonReaderEx)
  */
 public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
   private static final String PARAMS = "params";
@@ -119,6 +119,12 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
     Locals(int frameId) {
       writeLong("GoroutineID", -1);
       writeLong("Frame", frameId);
+      try {
+        writeLoadConfig(getWriter());
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
     }
   }
 
@@ -161,8 +167,8 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
     public EvalSymbol(@NotNull String symbol, int frameId) {
       try {
         getWriter().name(PARAMS).beginArray();
-        writeScope(frameId, getWriter())
-          .name("Symbol").value(symbol)
+        writeLoadConfig(writeScope(frameId, getWriter())
+                          .name("Symbol").value(symbol))
           .endObject().endArray();
       }
       catch (IOException e) {
@@ -185,6 +191,22 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
       .name("Frame").value(frameId).endObject();
   }
 
+  /**
+   * Load limits for the values in a response, taken from the registry for every request.
+   * Servers that ignore them apply their own limits, the debugger tree loads the rest of the children on demand.
+   */
+  @NotNull
+  private static JsonWriter writeLoadConfig(@NotNull JsonWriter writer) throws IOException {
+    DlvApi.LoadConfig config = DlvApi.LoadConfig.fromRegistry();
+    return writer.name("Cfg").beginObject()
+      .name("FollowPointers").value(config.followPointers)
+      .name("MaxVariableRecurse").value(config.maxVariableRecurse)
+      .name("MaxStringLen").value(config.maxStringLen)
+      .name("MaxArrayValues").value(config.maxArrayValues)
+      .name("MaxStructFields").value(config.maxStructFields)
+      .endObject();
+  }
+
   public final static class SetSymbol extends DlvRequest<Object> {
     public SetSymbol(@NotNull String symbol, @NotNull String value, int frameId) {
       try {
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoTypeSpec;
+import com.goide.psi.impl.GoImplementations;
+import com.goide.util.GoPathUseScope;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Go To Implementation for interfaces and interface methods
+ */
+public class GoImplementationsSearch extends QueryExecutorBase<PsiElement, DefinitionsScopedSearch.SearchParameters> {
+  public GoImplementationsSearch() {
+    super(true);
+  }
+
+  @Override
+  public void processQuery(@NotNull DefinitionsScopedSearch.SearchParameters parameters, @NotNull Processor<PsiElement> consumer) {
+    PsiElement element = parameters.getElement();
+    if (element instanceof GoTypeSpec) {
+      GoTypeSpec iface = (GoTypeSpec)element;
+      GoImplementations.processImplementations(iface, getScope(parameters, iface), consumer);
+    }
+    else if (element instanceof GoMethodSpec) {
+      GoTypeSpec iface = GoImplementations.getInterfaceTypeSpec((GoMethodSpec)element);
+      if (iface != null) {
+        GoImplementations.processImplementingMethods((GoMethodSpec)element, getScope(parameters, iface), consumer);
+      }
+    }
+  }
+
+  @NotNull
+  private static GlobalSearchScope getScope(@NotNull DefinitionsScopedSearch.SearchParameters parameters, @NotNull GoTypeSpec iface) {
+    GlobalSearchScope scope = GoImplementations.getImplementationsScope(iface);
+    SearchScope requested = parameters.getScope();
+    // the default one is the use scope filtered by imports, it would miss most of implementations
+    return requested instanceof GlobalSearchScope && !(requested instanceof GoPathUseScope)
+           ? scope.intersectWith((GlobalSearchScope)requested)
+           : scope;
+  }
+}
@@ -17,71 +17,61 @@
 package com.goide.inspections;
 
 import com.goide.psi.*;
+import com.goide.psi.impl.GoBuiltinUniverse;
 import com.goide.psi.impl.GoTypeReference;
 import com.goide.quickfix.GoRenameQuickFix;
-import com.goide.sdk.GoSdkUtil;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.ElementDescriptionUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.usageView.UsageViewTypeLocation;
+import com.intellij.util.ObjectUtils;
 import org.jetbrains.annotations.NotNull;
 
 public class GoReservedWordUsedAsNameInspection extends GoInspectionBase {
   @NotNull
   @Override
   protected GoVisitor buildGoVisitor(@NotNull ProblemsHolder holder, @NotNull LocalInspectionToolSession session) {
-    GoFile builtinFile = GoSdkUtil.findBuiltinFile(session.getFile());
-    if (builtinFile == null) return DUMMY_VISITOR;
+    GoBuiltinUniverse universe = GoBuiltinUniverse.getInstance(session.getFile());
+    if (universe == null) return DUMMY_VISITOR;
 
     return new GoVisitor() {
       @Override
       public void visitTypeSpec(@NotNull GoTypeSpec o) {
         super.visitTypeSpec(o);
-        check(o, builtinFile, holder);
+        check(o, universe, holder);
       }
 
       @Override
       public void visitConstDefinition(@NotNull GoConstDefinition o) {
         super.visitConstDefinition(o);
-        check(o, builtinFile, holder);
+        check(o, universe, holder);
       }
 
       @Override
       public void visitFunctionOrMethodDeclaration(@NotNull GoFunctionOrMethodDeclaration o) {
         super.visitFunctionOrMethodDeclaration(o);
-        check(o, builtinFile, holder);
+        check(o, universe, holder);
       }
 
       @Override
       public void visitVarDefinition(@NotNull GoVarDefinition o) {
         super.visitVarDefinition(o);
-        check(o, builtinFile, holder);
+        check(o, universe, holder);
       }
     };
   }
 
-  private static void check(@NotNull GoNamedElement element, @NotNull GoFile builtinFile, @NotNull ProblemsHolder holder) {
+  private static void check(@NotNull GoNamedElement element, @NotNull GoBuiltinUniverse universe, @NotNull ProblemsHolder holder) {
     String name = element.getName();
     if (name == null || GoTypeReference.DOC_ONLY_TYPES.contains(name)) return;
 
-    for (GoTypeSpec builtinTypeDeclaration : builtinFile.getTypes()) {
-      if (name.equals(builtinTypeDeclaration.getName())) {
-        registerProblem(holder, element, builtinTypeDeclaration);
-        return;
-      }
-    }
-
-    ProgressManager.checkCanceled();
-
-    for (GoFunctionDeclaration builtinFunctionsDeclaration : builtinFile.getFunctions()) {
-      if (name.equals(builtinFunctionsDeclaration.getName())) {
-        registerProblem(holder, element, builtinFunctionsDeclaration);
-        return;
-      }
+    GoNamedElement builtinElement = ObjectUtils.chooseNotNull(universe.find(name, GoTypeSpec.class),
+                                                              universe.find(name, GoFunctionDeclaration.class));
+    if (builtinElement != null) {
+      registerProblem(holder, element, builtinElement);
     }
   }
 
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.inspections.unresolved;
+
+import com.goide.psi.*;
+import com.goide.psi.impl.GoVarProcessor;
+import com.goide.sdk.GoPackageUtil;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.source.resolve.reference.impl.PsiMultiReference;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ConcurrentFactoryMap;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Package-level constants, variables and functions referenced from the package itself, collected by resolving every reference
+ * of the package once. Shared by the unused declaration inspections in batch mode and dropped on any PSI change.
+ * <p/>
+ * Highlighting searches references of a single declaration instead: the set depends on references inside function bodies,
+ * so it would be rebuilt after every edit, resolving every reference and parsing every body of the package.
+ * Exported declarations may be used by other packages, so for them a miss falls back to a references search.
+ * Locals, parameters and labels are searched in their local use scope, which is cheaper than building the package set.
+ */
+public class GoPackageUsages {
+  private static final Key<CachedValue<Map<String, GoPackageUsages>>> USAGES_CACHE = Key.create("GO_PACKAGE_USAGES");
+
+  private final Set<PsiElement> myUsedDeclarations;
+
+  private GoPackageUsages(@NotNull Set<PsiElement> usedDeclarations) {
+    myUsedDeclarations = usedDeclarations;
+  }
+
+  /**
+   * @param onTheFly whether the check runs during highlighting, only batch inspections use the package set
+   */
+  public static boolean isUsed(@NotNull GoNamedElement element, boolean onTheFly) {
+    GoPackageUsages usages = !onTheFly && isPackageLevel(element) ? getInstance(element.getContainingFile()) : null;
+    if (usages != null) {
+      if (usages.myUsedDeclarations.contains(element)) return true;
+      if (!element.isPublic()) return false;
+    }
+    return !ReferencesSearch.search(element, element.getUseScope()).forEach(reference -> !isUsage(reference.getElement(), element));
+  }
+
+  private static boolean isPackageLevel(@NotNull PsiElement element) {
+    if (element instanceof GoFunctionOrMethodDeclaration) return true;
+    return (element instanceof GoConstDefinition || element instanceof GoVarDefinition) &&
+           PsiTreeUtil.getParentOfType(element, GoBlock.class) == null;
+  }
+
+  @Nullable
+  private static GoPackageUsages getInstance(@NotNull GoFile file) {
+    PsiDirectory dir = file.getParent();
+    String packageName = file.getPackageName();
+    if (dir == null || StringUtil.isEmpty(packageName)) return null;
+    Map<String, GoPackageUsages> usages = CachedValuesManager.getCachedValue(dir, USAGES_CACHE, () -> {
+      Map<String, GoPackageUsages> map = ConcurrentFactoryMap.createMap(name -> build(dir, name));
+      return CachedValueProvider.Result.create(map, PsiModificationTracker.MODIFICATION_COUNT,
+                                               ProjectRootManager.getInstance(dir.getProject()));
+    });
+    return usages.get(packageName);
+  }
+
+  @NotNull
+  private static GoPackageUsages build(@NotNull PsiDirectory dir, @NotNull String packageName) {
+    Set<PsiElement> result = ContainerUtil.newHashSet();
+    for (GoFile file : GoPackageUtil.getAllPackageFiles(dir, packageName)) {
+      file.accept(new GoRecursiveVisitor() {
+        @Override
+        public void visitCompositeElement(@NotNull GoCompositeElement o) {
+          if (o instanceof GoReferenceExpressionBase) {
+            addTargets(o, result);
+          }
+          super.visitCompositeElement(o);
+        }
+      });
+    }
+    return new GoPackageUsages(result);
+  }
+
+  private static void addTargets(@NotNull PsiElement element, @NotNull Set<PsiElement> result) {
+    PsiReference reference = element.getReference();
+    // the same resolve as isReferenceTo of the reference, a field name refers to the field rather than to every variant
+    if (reference instanceof PsiPolyVariantReference && !(reference instanceof PsiMultiReference)) {
+      for (ResolveResult resolveResult : ((PsiPolyVariantReference)reference).multiResolve(false)) {
+        addTarget(element, resolveResult.getElement(), result);
+      }
+    }
+    else if (reference != null) {
+      addTarget(element, reference.resolve(), result);
+    }
+  }
+
+  private static void addTarget(@NotNull PsiElement element, @Nullable PsiElement target, @NotNull Set<PsiElement> result) {
+    if (target instanceof GoNamedElement && target != element && isPackageLevel(target) && isUsage(element, (GoNamedElement)target)) {
+      result.add(target);
+    }
+  }
+
+  /**
+   * Assignments to a variable don't count as its usages unless they happen in a closure,
+   * neither do redeclarations on the left side of a short variable declaration.
+   */
+  private static boolean isUsage(@Nullable PsiElement element, @NotNull GoNamedElement declaration) {
+    if (element == null) return false;
+    if (!(declaration instanceof GoVarDefinition)) return true;
+    PsiElement parent = element.getParent();
+    if (parent instanceof GoLeftHandExprList) {
+      PsiElement grandParent = parent.getParent();
+      if (grandParent instanceof GoAssignmentStatement &&
+          ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
+        GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
+        if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(declaration), fn, true)) {
+          return false;
+        }
+      }
+    }
+    if (parent instanceof GoShortVarDeclaration) {
+      int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
+      if (element.getStartOffsetInParent() < op) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
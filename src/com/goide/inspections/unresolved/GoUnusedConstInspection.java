@@ -23,7 +23,6 @@ import com.goide.quickfix.GoDeleteConstDefinitionQuickFix;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import org.jetbrains.annotations.NotNull;
 
 public class GoUnusedConstInspection extends GoInspectionBase {
@@ -34,7 +33,7 @@ public class GoUnusedConstInspection extends GoInspectionBase {
       @Override
       public void visitConstDefinition(@NotNull GoConstDefinition o) {
         if (o.isBlank()) return;
-        if (ReferencesSearch.search(o, o.getUseScope()).findFirst() == null) {
+        if (!GoPackageUsages.isUsed(o, holder.isOnTheFly())) {
           String constName = o.getName();
           holder.registerProblem(o, "Unused constant <code>#ref</code> #loc", ProblemHighlightType.LIKE_UNUSED_SYMBOL,
                                  new GoDeleteConstDefinitionQuickFix(constName));
@@ -31,7 +31,6 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import org.jetbrains.annotations.NotNull;
 
 public class GoUnusedFunctionInspection extends GoInspectionBase {
@@ -48,7 +47,7 @@ public class GoUnusedFunctionInspection extends GoInspectionBase {
         if (GoConstants.MAIN.equals(file.getPackageName()) && GoConstants.MAIN.equals(name)) return;
         if (GoConstants.INIT.equals(name)) return;
         if (GoTestFinder.isTestFile(file) && GoTestFunctionType.fromName(name) != null) return;
-        if (ReferencesSearch.search(o, o.getUseScope()).findFirst() == null) {
+        if (!GoPackageUsages.isUsed(o, holder.isOnTheFly())) {
           PsiElement id = o.getIdentifier();
           TextRange range = TextRange.from(id.getStartOffsetInParent(), id.getTextLength());
           holder.registerProblem(o, "Unused function <code>#ref</code> #loc", ProblemHighlightType.LIKE_UNUSED_SYMBOL, range,
@@ -25,7 +25,6 @@ import com.goide.quickfix.GoRenameToBlankQuickFix;
 import com.intellij.codeInspection.*;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -39,7 +38,7 @@ public class GoUnusedLabelInspection extends GoInspectionBase {
       public void visitLabelDefinition(@NotNull GoLabelDefinition o) {
         super.visitLabelDefinition(o);
         if (o.isBlank()) return;
-        if (ReferencesSearch.search(o, o.getUseScope()).findFirst() == null) {
+        if (!GoPackageUsages.isUsed(o, holder.isOnTheFly())) {
           String name = o.getName();
           holder.registerProblem(o, "Unused label <code>#ref</code> #loc", ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
                                  new GoRenameToBlankQuickFix(o), new GoDeleteLabelStatementQuickFix(name));
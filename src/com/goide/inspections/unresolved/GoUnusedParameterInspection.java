@@ -24,9 +24,6 @@ import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.psi.PsiReference;
-import com.intellij.psi.search.searches.ReferencesSearch;
-import com.intellij.util.Query;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -72,8 +69,7 @@ public class GoUnusedParameterInspection extends GoInspectionBase {
             ProgressManager.checkCanceled();
             if (parameter.isBlank()) continue;
 
-            Query<PsiReference> search = ReferencesSearch.search(parameter, parameter.getUseScope());
-            if (search.findFirst() != null) continue;
+            if (GoPackageUsages.isUsed(parameter, holder.isOnTheFly())) continue;
 
             holder.registerProblem(parameter, "Unused " + what + " <code>#ref</code> #loc", ProblemHighlightType.LIKE_UNUSED_SYMBOL);
           }
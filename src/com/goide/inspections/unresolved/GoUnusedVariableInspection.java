@@ -18,16 +18,13 @@ package com.goide.inspections.unresolved;
 
 import com.goide.inspections.GoInspectionBase;
 import com.goide.psi.*;
-import com.goide.psi.impl.GoVarProcessor;
 import com.goide.quickfix.GoDeleteVarDefinitionQuickFix;
 import com.goide.quickfix.GoRenameToBlankQuickFix;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -46,31 +43,7 @@ public class GoUnusedVariableInspection extends GoInspectionBase {
           PsiReference reference = o.getReference();
           PsiElement resolve = reference != null ? reference.resolve() : null;
           if (resolve != null) return;
-          boolean foundReference = !ReferencesSearch.search(o, o.getUseScope()).forEach(reference1 -> {
-            ProgressManager.checkCanceled();
-            PsiElement element = reference1.getElement();
-            if (element == null) return true;
-            PsiElement parent = element.getParent();
-            if (parent instanceof GoLeftHandExprList) {
-              PsiElement grandParent = parent.getParent();
-              if (grandParent instanceof GoAssignmentStatement &&
-                  ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
-                GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
-                if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(o), fn, true)) {
-                  return true;
-                }
-              }
-            }
-            if (parent instanceof GoShortVarDeclaration) {
-              int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
-              if (element.getStartOffsetInParent() < op) {
-                return true;
-              }
-            }
-            return false;
-          });
-
-          if (!foundReference) {
+          if (!GoPackageUsages.isUsed(o, holder.isOnTheFly())) {
             reportError(o, holder);
           }
         }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.marker;
+
+import com.goide.GoTypes;
+import com.goide.psi.GoMethodDeclaration;
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoNamedElement;
+import com.goide.psi.GoTypeSpec;
+import com.goide.psi.impl.GoImplementations;
+import com.goide.util.GoUtil;
+import com.intellij.codeHighlighting.Pass;
+import com.intellij.codeInsight.daemon.GutterIconNavigationHandler;
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.codeInsight.daemon.impl.PsiElementListNavigator;
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.util.DefaultPsiElementCellRenderer;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.NavigatablePsiElement;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.ui.awt.RelativePoint;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.FunctionUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Marks interfaces and interface methods that have implementations, and types and methods that implement interfaces.
+ * Markers only check the fingerprint index for possible targets, the targets are searched and verified on click.
+ */
+public class GoImplementationMarkerProvider implements LineMarkerProvider {
+  @Override
+  public LineMarkerInfo getLineMarkerInfo(@NotNull PsiElement element) {
+    return null;
+  }
+
+  @Override
+  public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
+    for (PsiElement element : elements) {
+      if (!(element instanceof LeafPsiElement) || ((LeafPsiElement)element).getElementType() != GoTypes.IDENTIFIER) continue;
+      PsiElement parent = element.getParent();
+      if (!(parent instanceof GoNamedElement) || ((GoNamedElement)parent).getIdentifier() != element) continue;
+      ProgressManager.checkCanceled();
+      if (parent instanceof GoTypeSpec) {
+        GoTypeSpec spec = (GoTypeSpec)parent;
+        if (GoImplementations.isInterface(spec)) {
+          addMarker(element, spec, Kind.IMPLEMENTED_TYPE, result);
+        }
+        else {
+          addMarker(element, spec, Kind.IMPLEMENTING_TYPE, result);
+        }
+      }
+      else if (parent instanceof GoMethodSpec) {
+        addMarker(element, (GoNamedElement)parent, Kind.IMPLEMENTED_METHOD, result);
+      }
+      else if (parent instanceof GoMethodDeclaration) {
+        addMarker(element, (GoNamedElement)parent, Kind.IMPLEMENTING_METHOD, result);
+      }
+    }
+  }
+
+  private static void addMarker(@NotNull PsiElement identifier,
+                                @NotNull GoNamedElement element,
+                                @NotNull Kind kind,
+                                @NotNull Collection<LineMarkerInfo> result) {
+    if (kind.mayHaveTargets(element)) {
+      result.add(new ImplementationMarkerInfo(identifier, kind));
+    }
+  }
+
+  private enum Kind {
+    IMPLEMENTED_TYPE(AllIcons.Gutter.ImplementedMethod, "Has implementations", "Implementations of {0}"),
+    IMPLEMENTING_TYPE(AllIcons.Gutter.ImplementingMethod, "Implements interfaces", "Interfaces implemented by {0}"),
+    IMPLEMENTED_METHOD(AllIcons.Gutter.ImplementedMethod, "Has implementations", "Implementations of {0}"),
+    IMPLEMENTING_METHOD(AllIcons.Gutter.ImplementingMethod, "Implements method", "Methods implemented by {0}");
+
+    @NotNull private final Icon myIcon;
+    @NotNull private final String myTooltip;
+    @NotNull private final String myTitle;
+
+    Kind(@NotNull Icon icon, @NotNull String tooltip, @NotNull String title) {
+      myIcon = icon;
+      myTooltip = tooltip;
+      myTitle = title;
+    }
+
+    /**
+     * Looks at the fingerprint index only, the targets themselves are searched when the marker is clicked
+     */
+    private boolean mayHaveTargets(@NotNull GoNamedElement element) {
+      switch (this) {
+        case IMPLEMENTED_TYPE:
+          GoTypeSpec iface = (GoTypeSpec)element;
+          return GoImplementations.mayHaveImplementations(iface, GoImplementations.getImplementationsScope(iface));
+        case IMPLEMENTING_TYPE:
+          return GoImplementations.mayHaveSuperInterfaces((GoTypeSpec)element, GoUtil.goPathResolveScope(element));
+        case IMPLEMENTED_METHOD:
+          GoTypeSpec owner = GoImplementations.getInterfaceTypeSpec((GoMethodSpec)element);
+          return owner != null && GoImplementations.mayHaveCounterparts(element, GoImplementations.getImplementationsScope(owner));
+        case IMPLEMENTING_METHOD:
+          return GoImplementations.mayHaveCounterparts(element, GoUtil.goPathResolveScope(element));
+      }
+      return false;
+    }
+
+    /**
+     * @return false if the processor stopped the search
+     */
+    private boolean process(@NotNull GoNamedElement element, @NotNull Processor<PsiElement> processor) {
+      switch (this) {
+        case IMPLEMENTED_TYPE:
+          GoTypeSpec iface = (GoTypeSpec)element;
+          return GoImplementations.processImplementations(iface, GoImplementations.getImplementationsScope(iface), processor);
+        case IMPLEMENTING_TYPE:
+          return GoImplementations.processSuperInterfaces((GoTypeSpec)element, GoUtil.goPathResolveScope(element), processor);
+        case IMPLEMENTED_METHOD:
+          GoTypeSpec owner = GoImplementations.getInterfaceTypeSpec((GoMethodSpec)element);
+          return owner == null ||
+                 GoImplementations.processImplementingMethods((GoMethodSpec)element, GoImplementations.getImplementationsScope(owner),
+                                                              processor);
+        case IMPLEMENTING_METHOD:
+          return GoImplementations.processSuperMethods((GoMethodDeclaration)element, GoUtil.goPathResolveScope(element), processor);
+      }
+      return true;
+    }
+  }
+
+  private static class ImplementationMarkerInfo extends LineMarkerInfo<PsiElement> {
+    private ImplementationMarkerInfo(@NotNull PsiElement identifier, @NotNull Kind kind) {
+      super(identifier,
+            identifier.getTextRange(),
+            kind.myIcon,
+            Pass.LINE_MARKERS,
+            FunctionUtil.constant(kind.myTooltip),
+            createNavigationHandler(kind),
+            GutterIconRenderer.Alignment.RIGHT
+      );
+    }
+
+    @NotNull
+    private static GutterIconNavigationHandler<PsiElement> createNavigationHandler(@NotNull Kind kind) {
+      return (e, identifier) -> {
+        PsiElement parent = identifier.getParent();
+        if (!(parent instanceof GoNamedElement)) return;
+        GoNamedElement element = (GoNamedElement)parent;
+        CommonProcessors.CollectUniquesProcessor<PsiElement> processor = new CommonProcessors.CollectUniquesProcessor<>();
+        String title = kind.myTitle.replace("{0}", String.valueOf(element.getName()));
+        if (!ProgressManager.getInstance().runProcessWithProgressSynchronously(
+          () -> ReadAction.run(() -> kind.process(element, processor)), "Searching for " + title, true, element.getProject())) {
+          return;
+        }
+        NavigatablePsiElement[] targets = ContainerUtil.findAllAsArray(processor.getResults(), NavigatablePsiElement.class);
+        if (targets.length == 0) {
+          // the marker was shown after an index lookup only
+          JBPopupFactory.getInstance().createMessage("No " + StringUtil.decapitalize(title) + " found").show(new RelativePoint(e));
+          return;
+        }
+        PsiElementListNavigator.openTargets(e, targets, title, title, new DefaultPsiElementCellRenderer());
+      };
+    }
+  }
+}
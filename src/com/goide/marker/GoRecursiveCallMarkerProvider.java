@@ -17,16 +17,13 @@
 package com.goide.marker;
 
 import com.goide.GoTypes;
-import com.goide.psi.GoCallExpr;
-import com.goide.psi.GoFunctionOrMethodDeclaration;
-import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.psi.*;
 import com.intellij.codeHighlighting.Pass;
 import com.intellij.codeInsight.daemon.LineMarkerInfo;
 import com.intellij.codeInsight.daemon.LineMarkerProvider;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
-import com.intellij.openapi.util.Comparing;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
@@ -45,34 +42,48 @@ public class GoRecursiveCallMarkerProvider implements LineMarkerProvider {
     return null;
   }
 
+  /**
+   * Only an identifier that names the enclosing function and is the callee of a call can be a recursive call,
+   * so candidates are filtered by text and by the shape of the call and only the rest are resolved.
+   * A function can't be called with a qualifier and a method can't be called without one.
+   */
   @Override
   public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
     Set<Integer> lines = ContainerUtil.newHashSet();
+    GoFunctionOrMethodDeclaration function = null;
+    String functionName = null;
     for (PsiElement element : elements) {
-      if (element instanceof LeafPsiElement && ((LeafPsiElement)element).getElementType() == GoTypes.IDENTIFIER) {
-        GoCallExpr callExpr = PsiTreeUtil.getParentOfType(element, GoCallExpr.class);
-        if (callExpr != null) {
-          PsiElement resolve = GoPsiImplUtil.resolveCall(callExpr);
-          if (resolve instanceof GoFunctionOrMethodDeclaration) {
-            if (isRecursiveCall(callExpr, (GoFunctionOrMethodDeclaration)resolve)) {
-              PsiDocumentManager instance = PsiDocumentManager.getInstance(element.getProject());
-              Document document = instance.getDocument(element.getContainingFile());
-              int textOffset = element.getTextOffset();
-              if (document == null) continue;
-              int lineNumber = document.getLineNumber(textOffset);
-              if (!lines.contains(lineNumber)) {
-                result.add(new RecursiveMethodCallMarkerInfo(element));
-              }
-              lines.add(lineNumber);
-            }
-          }
-        }
+      if (!(element instanceof LeafPsiElement) || ((LeafPsiElement)element).getElementType() != GoTypes.IDENTIFIER) continue;
+      PsiElement parent = element.getParent();
+      if (!(parent instanceof GoReferenceExpression) || !isCallee((GoReferenceExpression)parent)) continue;
+      GoReferenceExpression ref = (GoReferenceExpression)parent;
+      if (function == null || !function.getTextRange().contains(element.getTextRange())) {
+        function = PsiTreeUtil.getParentOfType(element, GoFunctionOrMethodDeclaration.class);
+        functionName = function != null ? function.getName() : null;
+      }
+      if (functionName == null || !element.textMatches(functionName)) continue;
+      boolean qualified = ref.getQualifier() != null || ref.getParent() instanceof GoSelectorExpr;
+      if (qualified != function instanceof GoMethodDeclaration) continue;
+      if (ref.resolve() != function) continue;
+      Document document = PsiDocumentManager.getInstance(element.getProject()).getDocument(element.getContainingFile());
+      if (document == null) continue;
+      if (lines.add(document.getLineNumber(element.getTextOffset()))) {
+        result.add(new RecursiveMethodCallMarkerInfo(element));
       }
     }
   }
 
-  private static boolean isRecursiveCall(PsiElement element, GoFunctionOrMethodDeclaration function) {
-    return Comparing.equal(PsiTreeUtil.getParentOfType(element, GoFunctionOrMethodDeclaration.class), function);
+  /**
+   * @return true if a call expression calls the reference itself, a selector ending with it or either of them in parentheses
+   */
+  private static boolean isCallee(@NotNull GoReferenceExpression ref) {
+    GoExpression callee = ref;
+    PsiElement parent = ref.getParent();
+    while (parent instanceof GoParenthesesExpr || parent instanceof GoSelectorExpr && ((GoSelectorExpr)parent).getRight() == callee) {
+      callee = (GoExpression)parent;
+      parent = parent.getParent();
+    }
+    return parent instanceof GoCallExpr && ((GoCallExpr)parent).getExpression() == callee;
   }
 
   private static class RecursiveMethodCallMarkerInfo extends LineMarkerInfo<PsiElement> {
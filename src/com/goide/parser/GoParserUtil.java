@@ -16,7 +16,6 @@
 
 package com.goide.parser;
 
-import com.goide.GoParserDefinition;
 import com.goide.GoTypes;
 import com.intellij.lang.LighterASTNode;
 import com.intellij.lang.PsiBuilder;
@@ -25,12 +24,8 @@ import com.intellij.lang.impl.PsiBuilderAdapter;
 import com.intellij.lang.impl.PsiBuilderImpl.ProductionMarker;
 import com.intellij.lang.parser.GeneratedParserUtilBase;
 import com.intellij.openapi.util.Key;
-import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.impl.source.resolve.FileContextUtil;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.util.containers.ContainerUtil;
-import com.intellij.util.indexing.IndexingDataKeys;
 import gnu.trove.TObjectIntHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -48,25 +43,23 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     return flags;
   }
 
+  /**
+   * Collapses a function body with balanced braces into a lazy {@link GoTypes#BLOCK}, it is parsed on demand.
+   * Unbalanced bodies are left to the regular block rule and its error recovery.
+   */
   public static boolean consumeBlock(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
-    PsiFile file = builder_.getUserDataUnprotected(FileContextUtil.CONTAINING_FILE_KEY);
-    VirtualFile data = file != null ? file.getUserData(IndexingDataKeys.VIRTUAL_FILE) : null;
-    if (data == null) return false;
+    if (builder_.getTokenType() != GoTypes.LBRACE) return false;
     int i = 0;
     PsiBuilder.Marker m = builder_.mark();
     do {
       IElementType type = builder_.getTokenType();
-      if (type == GoTypes.TYPE_ && nextIdentifier(builder_)) { // don't count a.(type), only type <ident>
-        m.rollbackTo();
-        return false;
-      }
       i += type == GoTypes.LBRACE ? 1 : type == GoTypes.RBRACE ? -1 : 0;
       builder_.advanceLexer();
     }
     while (i > 0 && !builder_.eof());
     boolean result = i == 0;
     if (result) {
-      m.drop();
+      m.collapse(GoTypes.BLOCK);
     }
     else {
       m.rollbackTo();
@@ -74,15 +67,6 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     return result;
   }
 
-  private static boolean nextIdentifier(PsiBuilder builder_) {
-    IElementType e;
-    int i = 0;
-    //noinspection StatementWithEmptyBody
-    while ((e = builder_.rawLookup(++i)) == GoParserDefinition.WS || e == GoParserDefinition.NLS) {
-    }
-    return e == GoTypes.IDENTIFIER;
-  }
-
   public static boolean emptyImportList(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
     PsiBuilder.Marker marker = getCurrentMarker(builder_ instanceof PsiBuilderAdapter ? ((PsiBuilderAdapter)builder_).getDelegate() : builder_);
     if (marker != null) {
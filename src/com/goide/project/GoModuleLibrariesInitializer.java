@@ -42,6 +42,8 @@ import com.intellij.openapi.roots.libraries.LibraryTablesRegistrar;
 import com.intellij.openapi.startup.StartupManager;
 import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.*;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
 import com.intellij.psi.PsiFileSystemItem;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.util.Alarm;
@@ -66,20 +68,14 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   private final Alarm myAlarm;
   private final MessageBusConnection myConnection;
   private boolean myModuleInitialized;
+  private boolean myLibraryRootsHandled;
 
-  @NotNull private final Set<VirtualFile> myLastHandledGoPathSourcesRoots = ContainerUtil.newHashSet();
+  @NotNull private final Set<VirtualFile> myLastHandledGoPathSourcesRoots = ContainerUtil.newConcurrentSet();
+  @NotNull private final Set<VirtualFile> myLastHandledIncludeRoots = ContainerUtil.newHashSet();
   @NotNull private final Set<VirtualFile> myLastHandledExclusions = ContainerUtil.newHashSet();
   @NotNull private final Set<LocalFileSystem.WatchRequest> myWatchedRequests = ContainerUtil.newHashSet();
 
   @NotNull private final Module myModule;
-  @NotNull private final VirtualFileListener myFilesListener = new VirtualFileListener() {
-    @Override
-    public void fileCreated(@NotNull VirtualFileEvent event) {
-      if (GoConstants.VENDOR.equals(event.getFileName()) && event.getFile().isDirectory()) {
-        showVendoringNotification();
-      }
-    }
-  };
 
   @TestOnly
   public static void setTestingMode(@NotNull Disposable disposable) {
@@ -106,6 +102,27 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
         }
       });
       myConnection.subscribe(GoLibrariesService.LIBRARIES_TOPIC, newRootUrls -> scheduleUpdate());
+      myConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+        @Override
+        public void after(@NotNull List<? extends VFileEvent> events) {
+          boolean vendorCreated = false;
+          boolean rootsChanged = false;
+          for (VFileEvent event : events) {
+            // content changes, the bulk of events on a checkout, neither add nor remove directories
+            if (event instanceof VFileContentChangeEvent) continue;
+            if (!vendorCreated) vendorCreated = isVendorCreation(event);
+            if (!rootsChanged) rootsChanged = changesLibraryRoots(event);
+            if (vendorCreated && rootsChanged) break;
+          }
+          if (vendorCreated) {
+            showVendoringNotification();
+          }
+          // a whole batch of events results in a single delayed update
+          if (rootsChanged) {
+            scheduleUpdate();
+          }
+        }
+      });
 
       Project project = myModule.getProject();
       StartupManager.getInstance(project).runWhenProjectIsInitialized(() -> {
@@ -118,8 +135,6 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
           }
         }
       });
-
-      VirtualFileManager.getInstance().addVirtualFileListener(myFilesListener);
     }
     scheduleUpdate(0);
     myModuleInitialized = true;
@@ -140,27 +155,52 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
     }
   }
 
+  private static boolean isVendorCreation(@NotNull VFileEvent event) {
+    return event instanceof VFileCreateEvent &&
+           ((VFileCreateEvent)event).isDirectory() &&
+           GoConstants.VENDOR.equals(((VFileCreateEvent)event).getChildName());
+  }
+
+  /**
+   * A directory appearing or disappearing right under a GOPATH sources root adds or removes a library root
+   */
+  private boolean changesLibraryRoots(@NotNull VFileEvent event) {
+    if (event instanceof VFileCreateEvent) {
+      return ((VFileCreateEvent)event).isDirectory() && myLastHandledGoPathSourcesRoots.contains(((VFileCreateEvent)event).getParent());
+    }
+    if (event instanceof VFilePropertyChangeEvent && !VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent)event).getPropertyName())) {
+      return false;
+    }
+    VirtualFile file = event.getFile();
+    if (file == null || !file.isDirectory()) return false;
+    if (event instanceof VFileCopyEvent) return myLastHandledGoPathSourcesRoots.contains(((VFileCopyEvent)event).getNewParent());
+    if (event instanceof VFileMoveEvent && myLastHandledGoPathSourcesRoots.contains(((VFileMoveEvent)event).getOldParent())) return true;
+    return myLastHandledGoPathSourcesRoots.contains(file.getParent());
+  }
+
   private void attachLibraries(@NotNull Collection<VirtualFile> libraryRoots, Set<VirtualFile> exclusions) {
     ApplicationManager.getApplication().assertIsDispatchThread();
 
     if (!libraryRoots.isEmpty()) {
-      ApplicationManager.getApplication().runWriteAction(() -> {
-        ModuleRootManager model = ModuleRootManager.getInstance(myModule);
-        LibraryOrderEntry goLibraryEntry = OrderEntryUtil.findLibraryOrderEntry(model, getLibraryName());
+      Set<String> rootUrls = ContainerUtil.map2LinkedSet(libraryRoots, VirtualFile::getUrl);
+      Set<String> excludedUrls = ContainerUtil.map2LinkedSet(exclusions, VirtualFile::getUrl);
+      ModuleRootManager model = ModuleRootManager.getInstance(myModule);
+      LibraryOrderEntry goLibraryEntry = OrderEntryUtil.findLibraryOrderEntry(model, getLibraryName());
 
-        if (goLibraryEntry != null && goLibraryEntry.isValid()) {
-          Library library = goLibraryEntry.getLibrary();
-          if (library != null && !((LibraryEx)library).isDisposed()) {
-            fillLibrary(library, libraryRoots, exclusions);
-          }
+      if (goLibraryEntry != null && goLibraryEntry.isValid()) {
+        Library library = goLibraryEntry.getLibrary();
+        if (library != null && !((LibraryEx)library).isDisposed() && !hasRoots(library, rootUrls, excludedUrls)) {
+          ApplicationManager.getApplication().runWriteAction(() -> updateLibrary(library, rootUrls, excludedUrls));
         }
-        else {
+      }
+      else {
+        ApplicationManager.getApplication().runWriteAction(() -> {
           LibraryTable libraryTable = LibraryTablesRegistrar.getInstance().getLibraryTable(myModule.getProject());
           Library library = libraryTable.createLibrary(getLibraryName());
-          fillLibrary(library, libraryRoots, exclusions);
+          updateLibrary(library, rootUrls, excludedUrls);
           ModuleRootModificationUtil.addDependency(myModule, library);
-        }
-      });
+        });
+      }
       showNotification(myModule.getProject());
     }
     else {
@@ -172,24 +212,57 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
     return GO_LIB_NAME + " <" + myModule.getName() + ">";
   }
 
-  private static void fillLibrary(@NotNull Library library, @NotNull Collection<VirtualFile> libraryRoots, Set<VirtualFile> exclusions) {
+  private static boolean hasRoots(@NotNull Library library, @NotNull Set<String> rootUrls, @NotNull Set<String> excludedUrls) {
+    return rootUrls.equals(ContainerUtil.newHashSet(library.getUrls(OrderRootType.CLASSES))) &&
+           rootUrls.equals(ContainerUtil.newHashSet(library.getUrls(OrderRootType.SOURCES))) &&
+           excludedUrls.equals(ContainerUtil.newHashSet(((LibraryEx)library).getExcludedRootUrls()));
+  }
+
+  /**
+   * Adds and removes only the roots that differ, so a single new GOPATH directory doesn't make the whole GOPATH rescanned
+   */
+  private static void updateLibrary(@NotNull Library library, @NotNull Set<String> rootUrls, @NotNull Set<String> excludedUrls) {
     ApplicationManager.getApplication().assertWriteAccessAllowed();
 
-    Library.ModifiableModel libraryModel = library.getModifiableModel();
-    for (String root : libraryModel.getUrls(OrderRootType.CLASSES)) {
-      libraryModel.removeRoot(root, OrderRootType.CLASSES);
+    LibraryEx.ModifiableModelEx libraryModel = (LibraryEx.ModifiableModelEx)library.getModifiableModel();
+    // CLASSES in order to consider GOPATH as library and show it in Ext. Libraries, SOURCES in order to find usages inside GOPATH
+    boolean changed = updateRoots(libraryModel, OrderRootType.CLASSES, rootUrls);
+    changed |= updateRoots(libraryModel, OrderRootType.SOURCES, rootUrls);
+    Set<String> oldExcludedUrls = ContainerUtil.newHashSet(libraryModel.getExcludedRootUrls());
+    for (String url : oldExcludedUrls) {
+      if (!excludedUrls.contains(url)) {
+        changed |= libraryModel.removeExcludedRoot(url);
+      }
+    }
+    for (String url : excludedUrls) {
+      if (!oldExcludedUrls.contains(url)) {
+        libraryModel.addExcludedRoot(url);
+        changed = true;
+      }
+    }
+    if (changed) {
+      libraryModel.commit();
     }
-    for (String root : libraryModel.getUrls(OrderRootType.SOURCES)) {
-      libraryModel.removeRoot(root, OrderRootType.SOURCES);
+    else {
+      Disposer.dispose(libraryModel);
     }
-    for (VirtualFile libraryRoot : libraryRoots) {
-      libraryModel.addRoot(libraryRoot, OrderRootType.CLASSES); // in order to consider GOPATH as library and show it in Ext. Libraries
-      libraryModel.addRoot(libraryRoot, OrderRootType.SOURCES); // in order to find usages inside GOPATH
+  }
+
+  private static boolean updateRoots(@NotNull Library.ModifiableModel libraryModel, @NotNull OrderRootType type, @NotNull Set<String> urls) {
+    boolean changed = false;
+    Set<String> oldUrls = ContainerUtil.newHashSet(libraryModel.getUrls(type));
+    for (String url : oldUrls) {
+      if (!urls.contains(url)) {
+        changed |= libraryModel.removeRoot(url, type);
+      }
     }
-    for (VirtualFile root : exclusions) {
-      ((LibraryEx.ModifiableModelEx)libraryModel).addExcludedRoot(root.getUrl());
+    for (String url : urls) {
+      if (!oldUrls.contains(url)) {
+        libraryModel.addRoot(url, type);
+        changed = true;
+      }
     }
-    libraryModel.commit();
+    return changed;
   }
 
   private void removeLibraryIfNeeded() {
@@ -299,8 +372,8 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
   public void disposeComponent() {
     Disposer.dispose(myConnection);
     Disposer.dispose(myAlarm);
-    VirtualFileManager.getInstance().removeVirtualFileListener(myFilesListener);
     myLastHandledGoPathSourcesRoots.clear();
+    myLastHandledIncludeRoots.clear();
     myLastHandledExclusions.clear();
     LocalFileSystem.getInstance().removeWatchedRoots(myWatchedRequests);
     myWatchedRequests.clear();
@@ -323,34 +396,43 @@ public class GoModuleLibrariesInitializer implements ModuleComponent {
       Project project = myModule.getProject();
       if (GoSdkService.getInstance(project).isGoModule(myModule)) {
         synchronized (myLastHandledGoPathSourcesRoots) {
-          Collection<VirtualFile> goPathSourcesRoots = GoSdkUtil.getGoPathSources(project, myModule);
+          Set<VirtualFile> goPathSourcesRoots = ContainerUtil.newLinkedHashSet(GoSdkUtil.getGoPathSources(project, myModule));
           Set<VirtualFile> excludeRoots = ContainerUtil.newHashSet(ProjectRootManager.getInstance(project).getContentRoots());
           ProgressIndicatorProvider.checkCanceled();
-          if (!myLastHandledGoPathSourcesRoots.equals(goPathSourcesRoots) || !myLastHandledExclusions.equals(excludeRoots)) {
-            Collection<VirtualFile> includeRoots = gatherIncludeRoots(goPathSourcesRoots, excludeRoots);
+          Collection<VirtualFile> includeRoots = gatherIncludeRoots(goPathSourcesRoots, excludeRoots);
+          if (!myLibraryRootsHandled || !myLastHandledIncludeRoots.equals(includeRoots) || !myLastHandledExclusions.equals(excludeRoots)) {
             ApplicationManager.getApplication().invokeLater(() -> {
               if (!myModule.isDisposed() && GoSdkService.getInstance(project).isGoModule(myModule)) {
                 attachLibraries(includeRoots, excludeRoots);
               }
             });
 
-            myLastHandledGoPathSourcesRoots.clear();
-            myLastHandledGoPathSourcesRoots.addAll(goPathSourcesRoots);
+            myLastHandledIncludeRoots.clear();
+            myLastHandledIncludeRoots.addAll(includeRoots);
 
             myLastHandledExclusions.clear();
             myLastHandledExclusions.addAll(excludeRoots);
+            myLibraryRootsHandled = true;
+          }
+          if (!myLastHandledGoPathSourcesRoots.equals(goPathSourcesRoots)) {
+            myLastHandledGoPathSourcesRoots.clear();
+            myLastHandledGoPathSourcesRoots.addAll(goPathSourcesRoots);
 
             List<String> paths = ContainerUtil.map(goPathSourcesRoots, VirtualFile::getPath);
+            Set<LocalFileSystem.WatchRequest> watchRequests = LocalFileSystem.getInstance().replaceWatchedRoots(myWatchedRequests, paths, null);
             myWatchedRequests.clear();
-            myWatchedRequests.addAll(LocalFileSystem.getInstance().addRootsToWatch(paths, true));
+            myWatchedRequests.addAll(watchRequests);
           }
         }
       }
       else {
         synchronized (myLastHandledGoPathSourcesRoots) {
           LocalFileSystem.getInstance().removeWatchedRoots(myWatchedRequests);
+          myWatchedRequests.clear();
           myLastHandledGoPathSourcesRoots.clear();
+          myLastHandledIncludeRoots.clear();
           myLastHandledExclusions.clear();
+          myLibraryRootsHandled = false;
           ApplicationManager.getApplication().invokeLater(() -> {
             if (!myModule.isDisposed() && GoSdkService.getInstance(project).isGoModule(myModule)) {
               removeLibraryIfNeeded();
@@ -19,6 +19,7 @@ package com.goide.project;
 import com.goide.GoConstants;
 import com.goide.configuration.GoConfigurableProvider;
 import com.goide.configuration.GoModuleSettingsConfigurable;
+import com.goide.psi.impl.GoCodeBlockModificationTracker;
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
@@ -86,6 +87,7 @@ public class GoModuleSettings implements PersistentStateComponent<GoModuleSettin
     Project project = myModule.getProject();
     if (!project.isDisposed()) {
       ResolveCache.getInstance(project).clearCache(true);
+      GoCodeBlockModificationTracker.getInstance(project).incOutOfBlockModificationCount();
       DaemonCodeAnalyzer.getInstance(project).restart();
     }
   }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi;
+
+import com.goide.GoLanguage;
+import com.goide.GoParserDefinition;
+import com.goide.GoTypes;
+import com.goide.lexer.GoLexer;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.impl.source.tree.ICompositeElementType;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Blocks are lazy and reparseable. A function or method body is collapsed by the parser into a single node
+ * that is parsed when its children are requested, see {@link com.goide.parser.GoParserUtil#consumeBlock}.
+ * Other blocks are parsed together with the enclosing code. Any block is reparsed alone after an edit
+ * that keeps its braces balanced.
+ */
+public class GoBlockElementType extends IReparseableElementType implements ICompositeElementType {
+  public GoBlockElementType(@NotNull String debugName) {
+    super(debugName, GoLanguage.INSTANCE);
+  }
+
+  @NotNull
+  @Override
+  public ASTNode createCompositeNode() {
+    return new LazyParseableElement(this, null);
+  }
+
+  @Override
+  public boolean isParsable(CharSequence buffer, Language fileLanguage, Project project) {
+    Lexer lexer = new GoLexer();
+    lexer.start(buffer);
+    if (lexer.getTokenType() != GoTypes.LBRACE) return false;
+    int depth = 0;
+    for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance()) {
+      depth += type == GoTypes.LBRACE ? 1 : type == GoTypes.RBRACE ? -1 : 0;
+      // the first brace must be closed by the last token
+      if (depth == 0) {
+        lexer.advance();
+        return lexer.getTokenType() == null;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Local type specs are the only stubs inside blocks, so blocks without {@code type T} or {@code type (...)} are not parsed
+   * while building stubs. {@code x.(type)} is not a declaration.
+   */
+  public static boolean hasTypeDeclarations(@NotNull CharSequence text) {
+    if (!StringUtil.contains(text, "type")) return false;
+    Lexer lexer = new GoLexer();
+    lexer.start(text);
+    boolean afterType = false;
+    for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance()) {
+      if (GoParserDefinition.WHITESPACES.contains(type) || GoParserDefinition.COMMENTS.contains(type)) continue;
+      if (afterType && (type == GoTypes.IDENTIFIER || type == GoTypes.LPAREN)) return true;
+      afterType = type == GoTypes.TYPE_;
+    }
+    return false;
+  }
+}
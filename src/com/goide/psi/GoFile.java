@@ -20,20 +20,25 @@ import com.goide.GoConstants;
 import com.goide.GoFileType;
 import com.goide.GoLanguage;
 import com.goide.GoTypes;
+import com.goide.project.GoModuleSettings;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.sdk.GoPackageModificationTracker;
 import com.goide.sdk.GoPackageUtil;
 import com.goide.sdk.GoSdkUtil;
 import com.goide.stubs.GoConstSpecStub;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoVarSpecStub;
 import com.goide.stubs.types.*;
+import com.goide.util.GoBuildConstraints;
 import com.goide.util.GoUtil;
 import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.SearchScope;
@@ -55,6 +60,7 @@ import java.util.List;
 import java.util.Map;
 
 public class GoFile extends PsiFileBase {
+  private volatile GoBuildConstraints myFileNameConstraints;
 
   public GoFile(@NotNull FileViewProvider viewProvider) {
     super(viewProvider, GoLanguage.INSTANCE);
@@ -114,6 +120,29 @@ public class GoFile extends PsiFileBase {
     return !buildFlags.isEmpty() ? StringUtil.join(buildFlags, "|") : null;
   }
 
+  @NotNull
+  public GoBuildConstraints getBuildConstraints() {
+    GoFileStub stub = getStub();
+    if (stub != null) {
+      return stub.getBuildConstraints();
+    }
+    return CachedValuesManager.getCachedValue(this, () ->
+      CachedValueProvider.Result.create(GoBuildConstraints.forBuildFlags(getBuildFlags()), this));
+  }
+
+  /**
+   * @return constraints implied by the {@code _os_arch} suffix of the file name, recompiled only after a rename
+   */
+  @NotNull
+  public GoBuildConstraints getFileNameConstraints() {
+    String name = getName();
+    GoBuildConstraints constraints = myFileNameConstraints;
+    if (constraints == null || !name.equals(constraints.getFileName())) {
+      myFileNameConstraints = constraints = GoBuildConstraints.forFileName(name);
+    }
+    return constraints;
+  }
+
 
   @NotNull
   public List<GoFunctionDeclaration> getFunctions() {
@@ -191,8 +220,12 @@ public class GoFile extends PsiFileBase {
   public MultiMap<String, GoImportSpec> getImportMap() {
     return CachedValuesManager.getCachedValue(this, () -> {
       MultiMap<String, GoImportSpec> map = MultiMap.createLinked();
-      List<Object> dependencies = ContainerUtil.newArrayList(this);
       Module module = ModuleUtilCore.findModuleForPsiElement(this);
+      List<Object> dependencies = ContainerUtil.newArrayList(this, ProjectRootManager.getInstance(getProject()),
+                                                             VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+      if (module != null) {
+        dependencies.add(GoModuleSettings.getInstance(module).getBuildTargetSettings());
+      }
       for (GoImportSpec spec : getImports()) {
         String alias = spec.getAlias();
         if (alias != null) {
@@ -205,8 +238,9 @@ public class GoFile extends PsiFileBase {
         }
         GoImportString string = spec.getImportString();
         PsiDirectory dir = string.resolve();
-        // todo[zolotov]: implement package modification tracker
-        ContainerUtil.addIfNotNull(dependencies, dir);
+        if (dir != null) {
+          dependencies.add(GoPackageModificationTracker.forDirectory(dir));
+        }
         Collection<String> packagesInDirectory = GoPackageUtil.getAllPackagesInDirectory(dir, module, true);
         if (!packagesInDirectory.isEmpty()) {
           for (String packageNames : packagesInDirectory) {
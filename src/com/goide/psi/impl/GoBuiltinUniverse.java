@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoFile;
+import com.goide.psi.GoNamedElement;
+import com.goide.sdk.GoSdkUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Predeclared identifiers of the universe block, i.e. top-level declarations of the SDK builtin file grouped by name.
+ * Built once per builtin file, so all modules with the same SDK share it, and dropped only when the builtin file changes.
+ */
+public class GoBuiltinUniverse {
+  private final MultiMap<String, GoNamedElement> myDeclarations;
+
+  private GoBuiltinUniverse(@NotNull MultiMap<String, GoNamedElement> declarations) {
+    myDeclarations = declarations;
+  }
+
+  @Nullable
+  public static GoBuiltinUniverse getInstance(@NotNull PsiElement context) {
+    GoFile builtin = GoSdkUtil.findBuiltinFile(context);
+    return builtin != null ? forFile(builtin) : null;
+  }
+
+  @NotNull
+  public static GoBuiltinUniverse forFile(@NotNull GoFile builtin) {
+    return CachedValuesManager.getCachedValue(builtin, () -> CachedValueProvider.Result.create(build(builtin), builtin));
+  }
+
+  /**
+   * @return constants, variables, functions and types with the given name, in this order
+   */
+  @NotNull
+  public Collection<GoNamedElement> getDeclarations(@NotNull String name) {
+    return myDeclarations.get(name);
+  }
+
+  @Nullable
+  public <T extends GoNamedElement> T find(@NotNull String name, @NotNull Class<T> kind) {
+    return ContainerUtil.findInstance(myDeclarations.get(name), kind);
+  }
+
+  @NotNull
+  private static GoBuiltinUniverse build(@NotNull GoFile builtin) {
+    MultiMap<String, GoNamedElement> declarations = MultiMap.createSmart();
+    putAll(declarations, builtin.getConstants());
+    putAll(declarations, builtin.getVars());
+    putAll(declarations, builtin.getFunctions());
+    putAll(declarations, builtin.getTypes());
+    return new GoBuiltinUniverse(declarations);
+  }
+
+  private static void putAll(@NotNull MultiMap<String, GoNamedElement> map, @NotNull Collection<? extends GoNamedElement> elements) {
+    for (GoNamedElement element : elements) {
+      String name = element.getName();
+      if (StringUtil.isNotEmpty(name)) {
+        map.putValue(name, element);
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoBlock;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionOrMethodDeclaration;
+import com.goide.psi.GoPackageClause;
+import com.goide.sdk.GoPackageModificationTracker;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.PsiTreeChangeEventImpl;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Out-of-code-block modification tracking for Go.
+ * A change made entirely inside the body of a top-level function or method increments only the tracker of that function,
+ * every other change of Go code increments the out-of-block tracker of the project
+ * and, unless only comments or whitespace after the package clause change, the {@link GoPackageModificationTracker} of the file.
+ * <p/>
+ * Nothing outside a function body can refer to its locals, so types and resolve results computed inside one body
+ * survive typing in other bodies, while anything computed outside of bodies depends on the out-of-block tracker only.
+ */
+public class GoCodeBlockModificationTracker {
+  private static final Key<SimpleModificationTracker> BODY_TRACKER = Key.create("GO_FUNCTION_BODY_TRACKER");
+
+  private final Project myProject;
+  private final SimpleModificationTracker myOutOfBlockTracker = new SimpleModificationTracker();
+
+  public GoCodeBlockModificationTracker(@NotNull Project project) {
+    myProject = project;
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        processChange(event.getParent(), null, event.getChild());
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event.getParent(), event.getChild(), null);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        processChange(event.getParent(), event.getOldChild(), event.getNewChild());
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        // a generic change of the whole file accompanies every commit, the actual changes are reported separately
+        if (event instanceof PsiTreeChangeEventImpl && ((PsiTreeChangeEventImpl)event).isGenericChange()) return;
+        processChange(event.getParent(), null, null);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        processChange(event.getOldParent(), event.getChild(), null);
+        processChange(event.getNewParent(), null, event.getChild());
+      }
+
+      @Override
+      public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+        incOutOfBlockModificationCount();
+      }
+    }, project);
+  }
+
+  public static GoCodeBlockModificationTracker getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoCodeBlockModificationTracker.class);
+  }
+
+  /**
+   * @return dependencies of a cached value computed from the given element and declarations visible from it
+   */
+  @NotNull
+  public static Object[] getDependencies(@NotNull PsiElement element) {
+    PsiFile file = element.getContainingFile();
+    if (!(file instanceof GoFile) || !file.isPhysical()) return new Object[]{PsiModificationTracker.MODIFICATION_COUNT};
+    Project project = element.getProject();
+    ModificationTracker outOfBlock = getInstance(project).getOutOfBlockTracker();
+    ProjectRootManager roots = ProjectRootManager.getInstance(project);
+    ModificationTracker dumbMode = DumbService.getInstance(project).getModificationTracker();
+    GoFunctionOrMethodDeclaration function = getFunctionWithBody(element);
+    return function != null
+           ? new Object[]{getBodyTracker(function), outOfBlock, roots, dumbMode, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS}
+           : new Object[]{outOfBlock, roots, dumbMode, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS};
+  }
+
+  @NotNull
+  public ModificationTracker getOutOfBlockTracker() {
+    return myOutOfBlockTracker;
+  }
+
+  /**
+   * Invalidates everything computed from Go code, for changes that are not visible as PSI events, e.g. build target settings
+   */
+  public void incOutOfBlockModificationCount() {
+    myOutOfBlockTracker.incModificationCount();
+  }
+
+  @NotNull
+  public static ModificationTracker getBodyTracker(@NotNull GoFunctionOrMethodDeclaration function) {
+    SimpleModificationTracker tracker = function.getUserData(BODY_TRACKER);
+    return tracker != null ? tracker : function.putUserDataIfAbsent(BODY_TRACKER, new SimpleModificationTracker());
+  }
+
+  /**
+   * @return top-level function or method whose body is or contains the element
+   */
+  @Nullable
+  private static GoFunctionOrMethodDeclaration getFunctionWithBody(@NotNull PsiElement element) {
+    GoBlock outermost = null;
+    for (PsiElement e = element; e != null && !(e instanceof PsiFile); e = e.getParent()) {
+      if (e instanceof GoBlock) {
+        outermost = (GoBlock)e;
+      }
+      else if (e instanceof GoFunctionOrMethodDeclaration) {
+        GoFunctionOrMethodDeclaration function = (GoFunctionOrMethodDeclaration)e;
+        return outermost != null && outermost == function.getBlock() ? function : null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param oldChild removed or replaced child, {@code null} if the change adds a child or isn't known
+   * @param newChild added or replacing child, {@code null} if the change removes a child or isn't known
+   */
+  private void processChange(@Nullable PsiElement parent, @Nullable PsiElement oldChild, @Nullable PsiElement newChild) {
+    if (parent == null || parent instanceof PsiDirectory) {
+      incOutOfBlockModificationCount();
+      return;
+    }
+    PsiFile file = parent.getContainingFile();
+    if (!(file instanceof GoFile)) return;
+    // a reparsed body is replaced as a whole while the signature stays the same
+    boolean bodyReplaced = parent instanceof GoFunctionOrMethodDeclaration && oldChild instanceof GoBlock && newChild instanceof GoBlock;
+    GoFunctionOrMethodDeclaration function = bodyReplaced ? (GoFunctionOrMethodDeclaration)parent : getFunctionWithBody(parent);
+    if (function == null) {
+      incOutOfBlockModificationCount();
+      if (!isFreeTextChange((GoFile)file, oldChild, newChild)) {
+        GoPackageModificationTracker.getInstance(myProject).incModificationCount(file);
+      }
+      return;
+    }
+    SimpleModificationTracker tracker = function.getUserData(BODY_TRACKER);
+    if (tracker != null) {
+      tracker.incModificationCount();
+    }
+  }
+
+  /**
+   * Comments and whitespace after the package clause don't declare anything, comments before it may be build constraints.
+   * The position of a removed child is unknown, so removals always count.
+   */
+  private static boolean isFreeTextChange(@NotNull GoFile file, @Nullable PsiElement oldChild, @Nullable PsiElement newChild) {
+    if (newChild == null || !isFreeText(oldChild) || !isFreeText(newChild)) return false;
+    GoPackageClause packageClause = file.getPackage();
+    return packageClause != null && newChild.getTextRange().getStartOffset() >= packageClause.getTextRange().getEndOffset();
+  }
+
+  private static boolean isFreeText(@Nullable PsiElement element) {
+    return element == null || element instanceof PsiComment || element instanceof PsiWhiteSpace;
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.*;
+import com.goide.sdk.GoPackageUtil;
+import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.GoMethodSpecStub;
+import com.goide.stubs.index.GoMethodFingerprintIndex;
+import com.goide.util.GoUtil;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementations of interfaces and interface methods found through {@link GoMethodFingerprintIndex}.
+ * <p/>
+ * Implementation candidates are the receiver types of declarations with the most selective fingerprint of the interface methods,
+ * only they are checked against the whole interface with {@link GoMethodSet}.
+ * Types that get the method with that fingerprint from an embedded field are not found.
+ * Methods are matched by name and signature shape, i.e. the number of parameters and results, parameter types are not compared.
+ * Interfaces that get all of their methods from embedded interfaces are not found as super interfaces.
+ */
+public class GoImplementations {
+  private GoImplementations() {}
+
+  /**
+   * Processes non-interface types whose pointer method sets implement the interface, each type once
+   */
+  public static boolean processImplementations(@NotNull GoTypeSpec iface,
+                                               @NotNull GlobalSearchScope scope,
+                                               @NotNull Processor<? super GoTypeSpec> processor) {
+    if (!isInterface(iface)) return true;
+    Collection<GoNamedElement> methods = GoMethodSet.forType(iface).getValueMethods();
+    // every type implements an empty interface, listing them is useless
+    if (methods.isEmpty()) return true;
+    List<String> fingerprints = fingerprints(methods);
+    if (fingerprints == null) return true;
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    for (GoMethodDeclaration declaration : findMostSelectiveDeclarations(fingerprints, iface.getProject(), scope)) {
+      ProgressManager.checkCanceled();
+      GoTypeSpec candidate = getReceiverTypeSpec(declaration);
+      if (candidate == null || !visited.add(candidate) || isInterface(candidate)) continue;
+      // the method sets intersect the candidates with the declarations of the other fingerprints
+      if (implementsInterface(candidate, iface) && !processor.process(candidate)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks the index only, so a marker can be shown without resolving and comparing method sets
+   *
+   * @return false if no type can implement the interface, i.e. some of its method fingerprints have no declarations
+   */
+  public static boolean mayHaveImplementations(@NotNull GoTypeSpec iface, @NotNull GlobalSearchScope scope) {
+    if (!isInterface(iface)) return false;
+    Collection<GoNamedElement> methods = GoMethodSet.forType(iface).getValueMethods();
+    List<String> fingerprints = methods.isEmpty() ? null : fingerprints(methods);
+    if (fingerprints == null) return false;
+    for (String fingerprint : fingerprints) {
+      if (!hasIndexed(fingerprint, GoMethodDeclaration.class, iface.getProject(), scope)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks the index only, so a marker can be shown without resolving and comparing method sets
+   *
+   * @return false if no interface declares a method with the fingerprint of a method of the type
+   */
+  public static boolean mayHaveSuperInterfaces(@NotNull GoTypeSpec type, @NotNull GlobalSearchScope scope) {
+    if (isInterface(type)) return false;
+    for (GoNamedElement method : GoMethodSet.forType(type).getPointerMethods()) {
+      String fingerprint = fingerprint(method);
+      if (fingerprint != null && hasIndexed(fingerprint, GoMethodSpec.class, type.getProject(), scope)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks the index only, the counterpart of {@link #mayHaveImplementations} and {@link #mayHaveSuperInterfaces} for methods
+   */
+  public static boolean mayHaveCounterparts(@NotNull GoNamedElement method, @NotNull GlobalSearchScope scope) {
+    String fingerprint = fingerprint(method);
+    Class<? extends GoNamedElement> counterpartClass = method instanceof GoMethodSpec ? GoMethodDeclaration.class : GoMethodSpec.class;
+    return fingerprint != null && hasIndexed(fingerprint, counterpartClass, method.getProject(), scope);
+  }
+
+  /**
+   * Processes interfaces implemented by the pointer method set of a non-interface type, each interface once
+   */
+  public static boolean processSuperInterfaces(@NotNull GoTypeSpec type,
+                                               @NotNull GlobalSearchScope scope,
+                                               @NotNull Processor<? super GoTypeSpec> processor) {
+    if (isInterface(type)) return true;
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    for (GoNamedElement method : GoMethodSet.forType(type).getPointerMethods()) {
+      String fingerprint = fingerprint(method);
+      if (fingerprint == null) continue;
+      for (GoNamedElement element : GoMethodFingerprintIndex.find(fingerprint, type.getProject(), scope)) {
+        ProgressManager.checkCanceled();
+        GoTypeSpec iface = element instanceof GoMethodSpec ? getInterfaceTypeSpec((GoMethodSpec)element) : null;
+        if (iface == null || !visited.add(iface)) continue;
+        if (implementsInterface(type, iface) && !processor.process(iface)) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Processes methods that implement the interface method in the found implementations, each method once
+   */
+  public static boolean processImplementingMethods(@NotNull GoMethodSpec method,
+                                                   @NotNull GlobalSearchScope scope,
+                                                   @NotNull Processor<? super GoMethodDeclaration> processor) {
+    String name = method.getName();
+    GoTypeSpec iface = getInterfaceTypeSpec(method);
+    if (name == null || iface == null) return true;
+    Set<GoMethodDeclaration> visited = ContainerUtil.newHashSet();
+    return processImplementations(iface, scope, type -> {
+      GoNamedElement implementation = GoMethodSet.forType(type).findPointerMethod(name);
+      return !(implementation instanceof GoMethodDeclaration)
+             || !visited.add((GoMethodDeclaration)implementation)
+             || processor.process((GoMethodDeclaration)implementation);
+    });
+  }
+
+  /**
+   * Processes interface methods the method implements, each interface method once
+   */
+  public static boolean processSuperMethods(@NotNull GoMethodDeclaration method,
+                                            @NotNull GlobalSearchScope scope,
+                                            @NotNull Processor<? super GoMethodSpec> processor) {
+    String name = method.getName();
+    String fingerprint = fingerprint(method);
+    GoTypeSpec type = getReceiverTypeSpec(method);
+    if (name == null || fingerprint == null || type == null) return true;
+    // a method hidden by a field or an ambiguous selector implements nothing
+    if (GoMethodSet.forType(type).findPointerMethod(name) != method) return true;
+    for (GoNamedElement element : GoMethodFingerprintIndex.find(fingerprint, method.getProject(), scope)) {
+      ProgressManager.checkCanceled();
+      if (!(element instanceof GoMethodSpec)) continue;
+      GoTypeSpec iface = getInterfaceTypeSpec((GoMethodSpec)element);
+      if (iface != null && implementsInterface(type, iface) && !processor.process((GoMethodSpec)element)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Implementations don't have to import the package of an interface, so the use scope filtered by imports is too narrow
+   */
+  @NotNull
+  public static GlobalSearchScope getImplementationsScope(@NotNull GoTypeSpec iface) {
+    return iface.isPublic() ? GoUtil.goPathUseScope(iface, false) : GoPackageUtil.packageScope(iface.getContainingFile());
+  }
+
+  public static boolean implementsInterface(@NotNull GoTypeSpec type, @NotNull GoTypeSpec iface) {
+    GoMethodSet methodSet = GoMethodSet.forType(type);
+    for (GoNamedElement method : GoMethodSet.forType(iface).getValueMethods()) {
+      String name = method.getName();
+      GoNamedElement implementation = name != null ? methodSet.findPointerMethod(name) : null;
+      if (implementation == null || !Comparing.equal(fingerprint(method), fingerprint(implementation))) return false;
+      // unexported names of different packages are different names
+      if (!method.isPublic() && !Comparing.equal(getPackageDirectory(method), getPackageDirectory(implementation))) return false;
+    }
+    return true;
+  }
+
+  public static boolean isInterface(@NotNull GoTypeSpec spec) {
+    return spec.getSpecType().getUnderlyingType() instanceof GoInterfaceType;
+  }
+
+  /**
+   * @return type spec of the named interface declaring the method, {@code null} for methods of interface literals
+   */
+  @Nullable
+  public static GoTypeSpec getInterfaceTypeSpec(@NotNull GoMethodSpec method) {
+    PsiElement type = method.getParent();
+    PsiElement specType = type instanceof GoInterfaceType ? type.getParent() : null;
+    PsiElement spec = specType instanceof GoSpecType ? specType.getParent() : null;
+    return spec instanceof GoTypeSpec ? (GoTypeSpec)spec : null;
+  }
+
+  @Nullable
+  public static GoTypeSpec getReceiverTypeSpec(@NotNull GoMethodDeclaration method) {
+    GoTypeReferenceExpression reference = GoPsiImplUtil.getTypeReference(method.getReceiverType());
+    PsiElement resolve = reference != null ? reference.resolve() : null;
+    return resolve instanceof GoTypeSpec ? (GoTypeSpec)resolve : null;
+  }
+
+  /**
+   * An implementation declares or embeds a method for every fingerprint, so candidates are taken from the fingerprint
+   * with the fewest declarations only. Counting stops as soon as a fingerprint has as many declarations as the best one.
+   */
+  @NotNull
+  private static List<GoMethodDeclaration> findMostSelectiveDeclarations(@NotNull List<String> fingerprints,
+                                                                         @NotNull Project project,
+                                                                         @NotNull GlobalSearchScope scope) {
+    List<GoMethodDeclaration> best = null;
+    for (String fingerprint : fingerprints) {
+      int limit = best != null ? best.size() : Integer.MAX_VALUE;
+      List<GoMethodDeclaration> declarations = ContainerUtil.newArrayList();
+      boolean completed = GoMethodFingerprintIndex.process(fingerprint, project, scope, element -> {
+        ProgressManager.checkCanceled();
+        if (element instanceof GoMethodDeclaration) {
+          declarations.add((GoMethodDeclaration)element);
+        }
+        return declarations.size() < limit;
+      });
+      if (completed) {
+        best = declarations;
+        if (best.isEmpty()) break;
+      }
+    }
+    return best != null ? best : Collections.emptyList();
+  }
+
+  private static boolean hasIndexed(@NotNull String fingerprint,
+                                    @NotNull Class<? extends GoNamedElement> elementClass,
+                                    @NotNull Project project,
+                                    @NotNull GlobalSearchScope scope) {
+    return !GoMethodFingerprintIndex.process(fingerprint, project, scope, element -> !elementClass.isInstance(element));
+  }
+
+  /**
+   * @return fingerprints of the methods, {@code null} if some of them has none
+   */
+  @Nullable
+  private static List<String> fingerprints(@NotNull Collection<GoNamedElement> methods) {
+    List<String> result = ContainerUtil.newArrayListWithCapacity(methods.size());
+    for (GoNamedElement method : methods) {
+      String fingerprint = fingerprint(method);
+      if (fingerprint == null) return null;
+      result.add(fingerprint);
+    }
+    return result;
+  }
+
+  @Nullable
+  private static String fingerprint(@NotNull GoNamedElement method) {
+    String name = method.getName();
+    if (name == null) return null;
+    if (method instanceof GoMethodSpec) {
+      GoMethodSpecStub stub = ((GoMethodSpec)method).getStub();
+      if (stub != null) return GoMethodFingerprintIndex.fingerprint(name, stub.getArity(), stub.getResultCount());
+    }
+    else if (method instanceof GoMethodDeclaration) {
+      GoMethodDeclarationStub stub = ((GoMethodDeclaration)method).getStub();
+      if (stub != null) return GoMethodFingerprintIndex.fingerprint(name, stub.getArity(), stub.getResultCount());
+    }
+    GoSignature signature = method instanceof GoSignatureOwner ? ((GoSignatureOwner)method).getSignature() : null;
+    return signature != null
+           ? GoMethodFingerprintIndex.fingerprint(name, GoPsiImplUtil.getArity(signature), GoPsiImplUtil.getResultCount(signature))
+           : null;
+  }
+
+  @Nullable
+  private static PsiElement getPackageDirectory(@NotNull PsiElement element) {
+    return element.getContainingFile().getOriginalFile().getParent();
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.*;
+import com.goide.sdk.GoPackageModificationTracker;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Method sets of a named type and of a pointer to it, including methods promoted from embedded fields.
+ * <p/>
+ * Computed once per type spec and cached until the package of the type or of any type embedded into it changes.
+ * A name declared at a shallower depth hides deeper ones, equal names at the same depth hide each other, as the spec says.
+ */
+public class GoMethodSet {
+  private final Map<String, GoNamedElement> myValueMethods;
+  private final Map<String, GoNamedElement> myPointerMethods;
+
+  private GoMethodSet(@NotNull Map<String, GoNamedElement> valueMethods, @NotNull Map<String, GoNamedElement> pointerMethods) {
+    myValueMethods = valueMethods;
+    myPointerMethods = pointerMethods;
+  }
+
+  @NotNull
+  public static GoMethodSet forType(@NotNull GoTypeSpec spec) {
+    return CachedValuesManager.getCachedValue(spec, () -> {
+      Set<PsiDirectory> packages = ContainerUtil.newHashSet();
+      GoMethodSet result = compute(spec, packages);
+      List<Object> dependencies = ContainerUtil.newArrayList(spec, ProjectRootManager.getInstance(spec.getProject()));
+      for (PsiDirectory dir : packages) {
+        dependencies.add(GoPackageModificationTracker.forDirectory(dir));
+      }
+      return CachedValueProvider.Result.create(result, dependencies.toArray());
+    });
+  }
+
+  /**
+   * Methods, i.e. {@link GoMethodDeclaration} or {@link GoMethodSpec}, callable on a value of the type
+   */
+  @NotNull
+  public Collection<GoNamedElement> getValueMethods() {
+    return myValueMethods.values();
+  }
+
+  /**
+   * Methods callable on a pointer to the type, for interfaces the set is empty
+   */
+  @NotNull
+  public Collection<GoNamedElement> getPointerMethods() {
+    return myPointerMethods.values();
+  }
+
+  @Nullable
+  public GoNamedElement findValueMethod(@NotNull String name) {
+    return myValueMethods.get(name);
+  }
+
+  @Nullable
+  public GoNamedElement findPointerMethod(@NotNull String name) {
+    return myPointerMethods.get(name);
+  }
+
+  private static class Embedded {
+    @NotNull final GoTypeSpec spec;
+    final boolean viaPointer;
+
+    Embedded(@NotNull GoTypeSpec spec, boolean viaPointer) {
+      this.spec = spec;
+      this.viaPointer = viaPointer;
+    }
+  }
+
+  @NotNull
+  private static GoMethodSet compute(@NotNull GoTypeSpec spec, @NotNull Set<PsiDirectory> packages) {
+    Map<String, GoNamedElement> valueMethods = ContainerUtil.newLinkedHashMap();
+    Map<String, GoNamedElement> pointerMethods = ContainerUtil.newLinkedHashMap();
+    Set<String> hidden = ContainerUtil.newHashSet();
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    boolean isInterface = false;
+    List<Embedded> level = ContainerUtil.newSmartList(new Embedded(spec, false));
+    for (int depth = 0; !level.isEmpty(); depth++) {
+      ProgressManager.checkCanceled();
+      // name -> candidates found at the current depth, a field is stored as null
+      Map<String, List<GoNamedElement>> found = ContainerUtil.newLinkedHashMap();
+      Map<GoNamedElement, Boolean> inValueSet = ContainerUtil.newHashMap();
+      List<Embedded> next = ContainerUtil.newArrayList();
+      for (Embedded embedded : level) {
+        if (!visited.add(embedded.spec)) continue;
+        ContainerUtil.addIfNotNull(packages, embedded.spec.getContainingFile().getOriginalFile().getParent());
+        GoType type = embedded.spec.getSpecType().getUnderlyingType();
+        if (type instanceof GoInterfaceType) {
+          if (depth == 0) isInterface = true;
+          for (GoMethodSpec method : getAllInterfaceMethods((GoInterfaceType)type, packages)) {
+            addCandidate(found, method.getName(), method);
+            inValueSet.put(method, true);
+          }
+          continue;
+        }
+        for (GoMethodDeclaration method : embedded.spec.getMethods()) {
+          addCandidate(found, method.getName(), method);
+          inValueSet.put(method, embedded.viaPointer || !(method.getReceiverType() instanceof GoPointerType));
+        }
+        if (type instanceof GoStructType) {
+          for (GoFieldDeclaration field : ((GoStructType)type).getFieldDeclarationList()) {
+            for (GoFieldDefinition definition : field.getFieldDefinitionList()) {
+              addCandidate(found, definition.getName(), null);
+            }
+            GoAnonymousFieldDefinition anonymous = field.getAnonymousFieldDefinition();
+            if (anonymous == null) continue;
+            addCandidate(found, anonymous.getName(), null);
+            GoTypeSpec embeddedSpec = resolveTypeSpec(anonymous.getTypeReferenceExpression());
+            if (embeddedSpec != null) {
+              next.add(new Embedded(embeddedSpec, embedded.viaPointer || anonymous.getType() instanceof GoPointerType));
+            }
+          }
+        }
+      }
+      for (Map.Entry<String, List<GoNamedElement>> entry : found.entrySet()) {
+        String name = entry.getKey();
+        if (!hidden.add(name)) continue;
+        List<GoNamedElement> candidates = entry.getValue();
+        GoNamedElement method = candidates.size() == 1 ? candidates.get(0) : null;
+        if (method == null) continue; // a field or an ambiguous selector
+        pointerMethods.put(name, method);
+        if (inValueSet.get(method) == Boolean.TRUE) {
+          valueMethods.put(name, method);
+        }
+      }
+      level = next;
+    }
+    return new GoMethodSet(valueMethods, isInterface ? Collections.emptyMap() : pointerMethods);
+  }
+
+  private static void addCandidate(@NotNull Map<String, List<GoNamedElement>> found, @Nullable String name, @Nullable GoNamedElement element) {
+    if (StringUtil.isEmpty(name)) return;
+    List<GoNamedElement> candidates = found.computeIfAbsent(name, n -> ContainerUtil.newSmartList());
+    if (!candidates.contains(element)) {
+      candidates.add(element);
+    }
+  }
+
+  @NotNull
+  private static List<GoMethodSpec> getAllInterfaceMethods(@NotNull GoInterfaceType type, @NotNull Set<PsiDirectory> packages) {
+    Map<String, GoMethodSpec> result = ContainerUtil.newLinkedHashMap();
+    Set<GoInterfaceType> visited = ContainerUtil.newHashSet();
+    Deque<GoInterfaceType> queue = new ArrayDeque<>();
+    queue.add(type);
+    while (!queue.isEmpty()) {
+      GoInterfaceType current = queue.poll();
+      if (!visited.add(current)) continue;
+      for (GoMethodSpec method : current.getMethods()) {
+        // embedded interfaces may repeat a method
+        result.putIfAbsent(method.getName(), method);
+      }
+      for (GoTypeReferenceExpression ref : current.getBaseTypesReferences()) {
+        GoTypeSpec base = resolveTypeSpec(ref);
+        if (base == null) continue;
+        ContainerUtil.addIfNotNull(packages, base.getContainingFile().getOriginalFile().getParent());
+        GoType baseType = base.getSpecType().getUnderlyingType();
+        if (baseType instanceof GoInterfaceType) {
+          queue.add((GoInterfaceType)baseType);
+        }
+      }
+    }
+    return ContainerUtil.newArrayList(result.values());
+  }
+
+  @Nullable
+  private static GoTypeSpec resolveTypeSpec(@Nullable GoTypeReferenceExpression ref) {
+    PsiElement resolve = ref != null ? ref.resolve() : null;
+    return resolve instanceof GoTypeSpec ? (GoTypeSpec)resolve : null;
+  }
+}
@@ -37,7 +37,6 @@ import com.intellij.psi.search.SearchScope;
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.ui.RowIcon;
 import com.intellij.usageView.UsageViewUtil;
@@ -116,7 +115,7 @@ public abstract class GoNamedElementImpl<T extends GoNamedStub<?>> extends GoStu
     return CachedValuesManager.getCachedValue(this,
                                               () -> CachedValueProvider.Result
                                                 .create(getGoTypeInner(GoPsiImplUtil.createContextOnElement(this)),
-                                                        PsiModificationTracker.MODIFICATION_COUNT));
+                                                        GoCodeBlockModificationTracker.getDependencies(this)));
   }
 
   @Nullable
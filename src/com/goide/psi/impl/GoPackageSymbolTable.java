@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoFile;
+import com.goide.psi.GoNamedElement;
+import com.goide.sdk.GoPackageModificationTracker;
+import com.goide.sdk.GoPackageUtil;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.ConcurrentFactoryMap;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Top-level constants, variables, functions and types of a package grouped by name.
+ * Built from stubs once per directory and package name, dropped when the package modification tracker changes.
+ * Build constraints and test visibility are not applied here, callers check them on the found declarations.
+ */
+public class GoPackageSymbolTable {
+  private static final Key<CachedValue<Map<String, GoPackageSymbolTable>>> TABLES_CACHE = Key.create("GO_PACKAGE_SYMBOL_TABLES");
+  private static final String ANY_PACKAGE = "*";
+
+  private final MultiMap<String, GoNamedElement> myDeclarations;
+
+  private GoPackageSymbolTable(@NotNull MultiMap<String, GoNamedElement> declarations) {
+    myDeclarations = declarations;
+  }
+
+  @NotNull
+  public Collection<GoNamedElement> getDeclarations(@NotNull String name) {
+    return myDeclarations.get(name);
+  }
+
+  /**
+   * @param packageName package to collect declarations from, {@code null} means every package in the directory
+   */
+  @NotNull
+  public static GoPackageSymbolTable getInstance(@NotNull PsiDirectory dir, @Nullable String packageName) {
+    Map<String, GoPackageSymbolTable> tables = CachedValuesManager.getCachedValue(dir, TABLES_CACHE, () -> {
+      Map<String, GoPackageSymbolTable> map = ConcurrentFactoryMap.createMap(name -> build(dir, ANY_PACKAGE.equals(name) ? null : name));
+      return CachedValueProvider.Result.create(map, GoPackageModificationTracker.forDirectory(dir));
+    });
+    return tables.get(StringUtil.notNullize(packageName, ANY_PACKAGE));
+  }
+
+  @NotNull
+  private static GoPackageSymbolTable build(@NotNull PsiDirectory dir, @Nullable String packageName) {
+    MultiMap<String, GoNamedElement> declarations = MultiMap.createSmart();
+    for (GoFile file : GoPackageUtil.getAllPackageFiles(dir, packageName)) {
+      putAll(declarations, file.getConstants());
+      putAll(declarations, file.getVars());
+      putAll(declarations, file.getFunctions());
+      putAll(declarations, file.getTypes());
+    }
+    return new GoPackageSymbolTable(declarations);
+  }
+
+  private static void putAll(@NotNull MultiMap<String, GoNamedElement> map, @NotNull Collection<? extends GoNamedElement> elements) {
+    for (GoNamedElement element : elements) {
+      String name = element.getName();
+      if (StringUtil.isNotEmpty(name)) {
+        map.putValue(name, element);
+      }
+    }
+  }
+}
@@ -18,14 +18,17 @@ package com.goide.psi.impl;
 
 import com.goide.GoConstants;
 import com.goide.GoTypes;
+import com.goide.project.GoExcludedPathsSettings;
 import com.goide.psi.*;
 import com.goide.psi.impl.imports.GoImportReferenceSet;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.sdk.GoPackageModificationTracker;
 import com.goide.sdk.GoPackageUtil;
 import com.goide.sdk.GoSdkUtil;
 import com.goide.stubs.*;
 import com.goide.stubs.index.GoIdFilter;
 import com.goide.stubs.index.GoMethodIndex;
+import com.goide.stubs.types.GoMethodDeclarationStubElementType;
 import com.goide.util.GoStringLiteralEscaper;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.highlighting.ReadWriteAccessDetector;
@@ -35,6 +38,7 @@ import com.intellij.lang.parser.GeneratedParserUtilBase;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.*;
 import com.intellij.openapi.util.text.StringUtil;
@@ -49,7 +53,6 @@ import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.PathUtil;
@@ -126,8 +129,31 @@ public class GoPsiImplUtil {
     return declaration;
   }
 
+  /**
+   * @return number of parameters, {@code (a, b int)} has two of them
+   */
   public static int getArity(@Nullable GoSignature s) {
-    return s == null ? -1 : s.getParameters().getParameterDeclarationList().size();
+    return s == null ? -1 : getParametersCount(s.getParameters());
+  }
+
+  public static int getResultCount(@Nullable GoSignature s) {
+    if (s == null) return -1;
+    GoResult result = s.getResult();
+    if (result == null) return 0;
+    GoParameters parameters = result.getParameters();
+    if (parameters != null) return getParametersCount(parameters);
+    GoType type = result.getType();
+    return type instanceof GoTypeList ? ((GoTypeList)type).getTypeList().size() : type != null ? 1 : 0;
+  }
+
+  private static int getParametersCount(@NotNull GoParameters parameters) {
+    GoType type = parameters.getType();
+    if (type != null) return type instanceof GoTypeList ? ((GoTypeList)type).getTypeList().size() : 1;
+    int count = 0;
+    for (GoParameterDeclaration declaration : parameters.getParameterDeclarationList()) {
+      count += Math.max(1, declaration.getParamDefinitionList().size());
+    }
+    return count;
   }
 
   @Nullable
@@ -356,7 +382,7 @@ public class GoPsiImplUtil {
     return RecursionManager.doPreventingRecursion(o, true, () -> {
       if (context != null) return unwrapParType(o, context);
       return CachedValuesManager.getCachedValue(o, () -> CachedValueProvider.Result
-        .create(unwrapParType(o, createContextOnElement(o)), PsiModificationTracker.MODIFICATION_COUNT));
+        .create(unwrapParType(o, createContextOnElement(o)), GoCodeBlockModificationTracker.getDependencies(o)));
     });
   }
 
@@ -495,14 +521,9 @@ public class GoPsiImplUtil {
 
   @Nullable
   public static GoType getBuiltinType(@NotNull String name, @NotNull PsiElement context) {
-    GoFile builtin = GoSdkUtil.findBuiltinFile(context);
-    if (builtin != null) {
-      GoTypeSpec spec = ContainerUtil.find(builtin.getTypes(), spec1 -> name.equals(spec1.getName()));
-      if (spec != null) {
-        return spec.getSpecType().getType(); // todo
-      }
-    }
-    return null;
+    GoBuiltinUniverse universe = GoBuiltinUniverse.getInstance(context);
+    GoTypeSpec spec = universe != null ? universe.find(name, GoTypeSpec.class) : null;
+    return spec != null ? spec.getSpecType().getType() : null; // todo
   }
 
   @Nullable
@@ -849,8 +870,13 @@ public class GoPsiImplUtil {
   @NotNull
   public static List<GoMethodDeclaration> getMethods(@NotNull GoTypeSpec o) {
     return CachedValuesManager.getCachedValue(o, () -> {
-      // todo[zolotov]: implement package modification tracker
-      return CachedValueProvider.Result.create(calcMethods(o), PsiModificationTracker.MODIFICATION_COUNT);
+      Project project = o.getProject();
+      if (DumbService.isDumb(project)) {
+        // the method index is not ready, methods declared in the same file are the best guess until indexing ends
+        return CachedValueProvider.Result.create(calcFileLocalMethods(o), o.getContainingFile(),
+                                                 DumbService.getInstance(project).getModificationTracker());
+      }
+      return CachedValueProvider.Result.create(calcMethods(o), GoPackageModificationTracker.getPackageDependencies(o));
     });
   }
 
@@ -958,6 +984,15 @@ public class GoPsiImplUtil {
     return Collections.emptyList();
   }
 
+  @NotNull
+  private static List<GoMethodDeclaration> calcFileLocalMethods(@NotNull GoTypeSpec o) {
+    PsiFile file = o.getContainingFile();
+    String typeName = o.getName();
+    if (!(file instanceof GoFile) || StringUtil.isEmpty(typeName)) return Collections.emptyList();
+    return ContainerUtil.filter(((GoFile)file).getMethods(),
+                                m -> typeName.equals(GoMethodDeclarationStubElementType.calcTypeText(m)));
+  }
+
   @NotNull
   public static GoType getUnderlyingType(@NotNull GoType o) {
     GoType type = RecursionManager.doPreventingRecursion(o, true, () -> getTypeInner(o));
@@ -1486,6 +1521,21 @@ public class GoPsiImplUtil {
     return allowed(file, null, module) && !GoUtil.isExcludedFile(file);
   }
 
+  /**
+   * Directory-level part of {@link #canBeAutoImported(GoFile, boolean, Module)}, ignored files and build constraints
+   * of the package files are checked by the caller.
+   */
+  public static boolean canBeAutoImported(@NotNull PsiDirectory directory, @NotNull String packageName, boolean allowMain) {
+    if (!allowMain && GoConstants.MAIN.equals(packageName) || GoConstants.DOCUMENTATION.equals(packageName)) {
+      return false;
+    }
+    String importPath = GoSdkUtil.getImportPath(directory, false);
+    if (GoConstants.BUILTIN_PACKAGE_NAME.equals(packageName) && GoConstants.BUILTIN_PACKAGE_NAME.equals(importPath)) {
+      return false;
+    }
+    return importPath == null || !GoExcludedPathsSettings.getInstance(directory.getProject()).isExcluded(importPath);
+  }
+
   @Nullable
   @Contract("null, _ -> null")
   public static <T extends PsiElement> T getNonStrictTopmostParentOfType(@Nullable PsiElement element, @NotNull Class<T> aClass) {
@@ -23,6 +23,9 @@ import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.util.*;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.source.resolve.ResolveCache;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ArrayUtil;
 import com.intellij.util.IncorrectOperationException;
@@ -33,6 +36,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static com.goide.psi.impl.GoPsiImplUtil.*;
@@ -40,6 +44,10 @@ import static com.goide.psi.impl.GoPsiImplUtil.*;
 public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
   private static final Key<Object> POINTER = Key.create("POINTER");
   private static final Key<Object> DONT_PROCESS_METHODS = Key.create("DONT_PROCESS_METHODS");
+  private static final Condition<GoNamedElement> DONT_PROCESS_INIT =
+    o -> o instanceof GoFunctionDeclaration && !Comparing.equal(o.getName(), GoConstants.INIT);
+
+  private static final Key<CachedValue<ResolveResult[]>> RESOLVE_RESULTS = Key.create("GO_RESOLVE_RESULTS");
 
   private static final ResolveCache.PolyVariantResolver<GoReference> MY_RESOLVER =
     (r, incompleteCode) -> r.resolveInner();
@@ -76,6 +84,13 @@ public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
   @NotNull
   public ResolveResult[] multiResolve(boolean incompleteCode) {
     if (!myElement.isValid()) return ResolveResult.EMPTY_ARRAY;
+    // file-local results must not outlive dumb mode in the resolve cache
+    if (isFileLocalResolve(myElement)) return MY_RESOLVER.resolve(this, incompleteCode);
+    if (myElement.getContainingFile().isPhysical()) {
+      // declarations of other files change the out-of-block tracker, added and removed package files change the VFS structure
+      return CachedValuesManager.getCachedValue(myElement, RESOLVE_RESULTS, () -> CachedValueProvider.Result
+        .create(resolveInner(), GoCodeBlockModificationTracker.getDependencies(myElement)));
+    }
     return ResolveCache.getInstance(myElement.getProject()).resolveWithCaching(this, MY_RESOLVER, false, false);
   }
 
@@ -105,6 +120,7 @@ public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
     if (target == qualifier) return processor.execute(myElement, state);
     if (target instanceof GoImportSpec) {
       if (((GoImportSpec)target).isCImport()) return processor.execute(myElement, state);
+      if (isFileLocalResolve(myElement)) return false;
       target = ((GoImportSpec)target).getImportString().resolve();
     }
     if (target instanceof PsiDirectory && !processDirectory((PsiDirectory)target, file, null, processor, state, false)) return false;
@@ -162,7 +178,12 @@ public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
 
     GoTypeSpec parent = getTypeSpecSafe(type);
     boolean canProcessMethods = state.get(DONT_PROCESS_METHODS) == null;
-    if (canProcessMethods && parent != null && !processNamedElements(processor, state, parent.getMethods(), localResolve, true)) return false;
+    if (canProcessMethods && parent != null) {
+      if (!processor.isCompletion() && !isFileLocalResolve(myElement) && !processMethodSet(parent, processor, state, myFile)) {
+        return false;
+      }
+      if (!processNamedElements(processor, state, parent.getMethods(), localResolve, true)) return false;
+    }
 
     if (type instanceof GoSpecType) {
       type = type.getUnderlyingType();
@@ -197,6 +218,23 @@ public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
     return true;
   }
 
+  /**
+   * Resolves a selector through the cached method set of the type, promoted methods included,
+   * so embedded types are walked only when the selector is not a method.
+   */
+  private boolean processMethodSet(@NotNull GoTypeSpec spec,
+                                   @NotNull GoScopeProcessor processor,
+                                   @NotNull ResolveState state,
+                                   @NotNull PsiFile myFile) {
+    GoMethodSet methodSet = GoMethodSet.forType(spec);
+    String name = getIdentifier().getText();
+    GoNamedElement method = ObjectUtils.chooseNotNull(methodSet.findPointerMethod(name), methodSet.findValueMethod(name));
+    if (method == null) return true;
+    PsiFile methodFile = method.getContainingFile();
+    if (!allowed(methodFile, myFile, ModuleUtilCore.findModuleForPsiElement(myFile))) return true;
+    return processNamedElements(processor, state, Collections.singletonList(method), isLocalResolve(myFile, methodFile), true);
+  }
+
   public static boolean isLocalResolve(@NotNull PsiFile originFile, @NotNull PsiFile externalFile) {
     if (!(originFile instanceof GoFile) || !(externalFile instanceof GoFile)) return false;
     GoFile o1 = (GoFile)originFile.getOriginalFile();
@@ -305,15 +343,30 @@ public class GoReference extends GoReferenceBase<GoReferenceExpressionBase> {
                                         @NotNull GoScopeProcessor processor,
                                         @NotNull ResolveState state,
                                         boolean localProcessing) {
-    if (!processNamedElements(processor, state, file.getConstants(), o -> !Comparing.equal(GoConstants.IOTA, o.getName()) ||
-                                                                    !builtin(o) ||
-           PsiTreeUtil.getParentOfType(getContextElement(state), GoConstSpec.class) != null, localProcessing, false)) return false;
+    if (!processNamedElements(processor, state, file.getConstants(), iotaCondition(state), localProcessing, false)) return false;
     if (!processNamedElements(processor, state, file.getVars(), localProcessing)) return false;
-    Condition<GoNamedElement> dontProcessInit = o -> o instanceof GoFunctionDeclaration && !Comparing.equal(o.getName(), GoConstants.INIT);
-    if (!processNamedElements(processor, state, file.getFunctions(), dontProcessInit, localProcessing, false)) return false;
+    if (!processNamedElements(processor, state, file.getFunctions(), DONT_PROCESS_INIT, localProcessing, false)) return false;
     return processNamedElements(processor, state, file.getTypes(), localProcessing);
   }
 
+  @Override
+  protected boolean processPackageEntities(@NotNull Collection<? extends GoNamedElement> elements,
+                                           @NotNull GoScopeProcessor processor,
+                                           @NotNull ResolveState state,
+                                           boolean localProcessing) {
+    Condition<GoNamedElement> iotaCondition = iotaCondition(state);
+    Condition<GoNamedElement> condition = o -> o instanceof GoConstDefinition ? iotaCondition.value(o)
+                                                                              : !(o instanceof GoFunctionDeclaration) || DONT_PROCESS_INIT.value(o);
+    return processNamedElements(processor, state, elements, condition, localProcessing, false);
+  }
+
+  @NotNull
+  private static Condition<GoNamedElement> iotaCondition(@NotNull ResolveState state) {
+    return o -> !Comparing.equal(GoConstants.IOTA, o.getName()) ||
+                !builtin(o) ||
+                PsiTreeUtil.getParentOfType(getContextElement(state), GoConstSpec.class) != null;
+  }
+
   @NotNull
   @Override
   public PsiElement handleElementRename(@NotNull String newElementName) throws IncorrectOperationException {
@@ -20,6 +20,7 @@ import com.goide.psi.*;
 import com.goide.sdk.GoSdkUtil;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
@@ -51,6 +52,14 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
     return virtualFile == null ? null : virtualFile.getPath();
   }
 
+  /**
+   * While indexes are being built the resolve is file-local: only declarations of the file itself, its imports and builtins
+   * are visible, other files of the package and method sets collected from indexes are skipped.
+   */
+  protected static boolean isFileLocalResolve(@NotNull PsiElement element) {
+    return DumbService.isDumb(element.getProject());
+  }
+
   private static void putIfAbsent(@NotNull GoImportSpec importSpec, @NotNull PsiElement usage) {
     //noinspection SynchronizationOnLocalVariableOrMethodParameter
     synchronized (importSpec) {
@@ -66,9 +75,19 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
                                      @NotNull GoScopeProcessor processor,
                                      @NotNull ResolveState state,
                                      boolean localProcessing) {
-    if (dir == null) return true;
+    if (dir == null || isFileLocalResolve(myElement)) return true;
     String filePath = getPath(file);
     Module module = file != null ? ModuleUtilCore.findModuleForPsiElement(file) : null;
+    if (!processor.isCompletion()) {
+      String name = myElement.getIdentifier().getText();
+      List<GoNamedElement> declarations = ContainerUtil.newSmartList();
+      for (GoNamedElement declaration : GoPackageSymbolTable.getInstance(dir, packageName).getDeclarations(name)) {
+        PsiFile f = declaration.getContainingFile();
+        if (Comparing.equal(getPath(f), filePath) || !allowed(f, file, module)) continue;
+        declarations.add(declaration);
+      }
+      return processPackageEntities(declarations, processor, state, localProcessing);
+    }
     for (PsiFile f : dir.getFiles()) {
       if (!(f instanceof GoFile) || Comparing.equal(getPath(f), filePath)) continue;
       if (packageName != null && !packageName.equals(((GoFile)f).getPackageName())) continue;
@@ -80,7 +99,10 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
 
   protected boolean processBuiltin(@NotNull GoScopeProcessor processor, @NotNull ResolveState state, @NotNull GoCompositeElement element) {
     GoFile builtin = GoSdkUtil.findBuiltinFile(element);
-    return builtin == null || processFileEntities(builtin, processor, state, true);
+    if (builtin == null) return true;
+    if (processor.isCompletion()) return processFileEntities(builtin, processor, state, true);
+    String name = myElement.getIdentifier().getText();
+    return processPackageEntities(GoBuiltinUniverse.forFile(builtin).getDeclarations(name), processor, state, true);
   }
 
   protected boolean processImports(@NotNull GoFile file,
@@ -93,6 +115,7 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
 
         GoImportString importString = o.getImportString();
         if (o.isDot()) {
+          if (isFileLocalResolve(element)) continue;
           PsiDirectory implicitDir = importString.resolve();
           boolean resolved = !processDirectory(implicitDir, file, null, processor, state, false);
           if (resolved && !processor.isCompletion()) {
@@ -131,6 +154,14 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
     };
   }
 
+  /**
+   * Processes top-level declarations found in other files of a package, the same kinds as {@link #processFileEntities} accepts.
+   */
+  protected abstract boolean processPackageEntities(@NotNull Collection<? extends GoNamedElement> elements,
+                                                    @NotNull GoScopeProcessor processor,
+                                                    @NotNull ResolveState state,
+                                                    boolean localProcessing);
+
   protected abstract boolean processFileEntities(@NotNull GoFile file,
                                                  @NotNull GoScopeProcessor processor,
                                                  @NotNull ResolveState state,
@@ -19,7 +19,6 @@ package com.goide.psi.impl;
 import com.goide.GoConstants;
 import com.goide.GoTypes;
 import com.goide.psi.*;
-import com.goide.sdk.GoSdkUtil;
 import com.goide.util.GoUtil;
 import com.intellij.openapi.util.Condition;
 import com.intellij.openapi.util.TextRange;
@@ -124,9 +123,9 @@ public class GoTypeReference extends GoReferenceBase<GoTypeReferenceExpression>
     if (getIdentifier().textMatches(GoConstants.NIL) && PsiTreeUtil.getParentOfType(myElement, GoTypeCaseClause.class) != null) {
       GoType type = PsiTreeUtil.getParentOfType(myElement, GoType.class);
       if (FormatterUtil.getPrevious(type != null ? type.getNode() : null, GoTypes.CASE) == null) return true;
-      GoFile builtinFile = GoSdkUtil.findBuiltinFile(myElement);
-      if (builtinFile == null) return false;
-      GoVarDefinition nil = ContainerUtil.find(builtinFile.getVars(), v -> GoConstants.NIL.equals(v.getName()));
+      GoBuiltinUniverse universe = GoBuiltinUniverse.getInstance(myElement);
+      if (universe == null) return false;
+      GoVarDefinition nil = universe.find(GoConstants.NIL, GoVarDefinition.class);
       if (nil != null && !processor.execute(nil, state)) return false;
     }
     return true;
@@ -152,6 +151,16 @@ public class GoTypeReference extends GoReferenceBase<GoTypeReferenceExpression>
     return processNamedElements(processor, state, types, localProcessing);
   }
 
+  @Override
+  protected boolean processPackageEntities(@NotNull Collection<? extends GoNamedElement> elements,
+                                           @NotNull GoScopeProcessor processor,
+                                           @NotNull ResolveState state,
+                                           boolean localProcessing) {
+    List<GoTypeSpec> types = ContainerUtil.filter(ContainerUtil.findAll(elements, GoTypeSpec.class),
+                                                  spec -> !GoPsiImplUtil.isBuiltinFile(spec.getContainingFile()) || BUILTIN_TYPE.value(spec));
+    return processNamedElements(processor, state, types, localProcessing);
+  }
+
   private boolean processNamedElements(@NotNull PsiScopeProcessor processor,
                                        @NotNull ResolveState state,
                                        @NotNull Collection<? extends GoNamedElement> elements, boolean localResolve) {
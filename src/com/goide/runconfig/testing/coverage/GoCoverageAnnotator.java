@@ -199,13 +199,11 @@ public class GoCoverageAnnotator extends BaseCoverageAnnotator {
             if (!file.isDirectory() && GoCoverageEngine.INSTANCE.coverageProjectViewStatisticsApplicableTo(file)) {
               DirCoverageInfo dirCoverageInfo = getOrCreateDirectoryInfo(file.getParent());
               FileCoverageInfo fileCoverageInfo = getOrCreateFileInfo(file);
-              data.processFile(file.getPath(), rangeData -> {
-                if (rangeData.hits > 0) {
-                  fileCoverageInfo.coveredLineCount += rangeData.statements;
-                }
-                fileCoverageInfo.totalLineCount += rangeData.statements;
-                return true;
-              });
+              GoCoverageProjectData.FileData fileData = data.getFileData(file.getPath());
+              if (fileData != null) {
+                fileCoverageInfo.coveredLineCount += fileData.getCoveredStatementsCount();
+                fileCoverageInfo.totalLineCount += fileData.getStatementsCount();
+              }
 
               if (fileCoverageInfo.totalLineCount > 0) {
                 dirCoverageInfo.totalLineCount += fileCoverageInfo.totalLineCount;
@@ -16,15 +16,19 @@
 
 package com.goide.runconfig.testing.coverage;
 
-import com.intellij.openapi.util.Factory;
 import com.intellij.rt.coverage.data.CoverageData;
 import com.intellij.rt.coverage.data.ProjectData;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Map;
 
+/**
+ * Coverage of Go files. File data is immutable and normalized once it is built, so it can be read from any thread.
+ */
 public class GoCoverageProjectData extends ProjectData {
   @NotNull
   private final Map<String, FileData> myFilesData = ContainerUtil.newHashMap();
@@ -37,52 +41,18 @@ public class GoCoverageProjectData extends ProjectData {
     }
   }
 
-  public void processFile(@NotNull String filePath, @NotNull Processor<RangeData> processor) {
-    FileData fileData = myFilesData.get(filePath);
-    if (fileData != null) {
-      for (RangeData rangeData : fileData.myRangesData.values()) {
-        if (!processor.process(rangeData)) {
-          return;
-        }
-      }
-    }
-  }
-
-  public void addData(String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-    FileData fileData = ContainerUtil.getOrCreate(myFilesData, filePath, new Factory<FileData>() {
-      @Override
-      public FileData create() {
-        return new FileData(filePath);
-      }
-    });
-    fileData.add(startLine, startColumn, endLine, endColumn, statements, hits);
+  @Nullable
+  public FileData getFileData(@NotNull String filePath) {
+    return myFilesData.get(filePath);
   }
 
   @Override
   public void merge(CoverageData data) {
     super.merge(data);
     if (data instanceof GoCoverageProjectData) {
-      for (Map.Entry<String, FileData> entry : ((GoCoverageProjectData)data).myFilesData.entrySet()) {
-        String filePath = entry.getKey();
-        FileData fileData = myFilesData.get(filePath);
-        FileData fileDataToMerge = entry.getValue();
-        if (fileData != null) {
-          for (Map.Entry<String, RangeData> dataEntry : fileDataToMerge.myRangesData.entrySet()) {
-            RangeData existingRangeData = fileData.myRangesData.get(dataEntry.getKey());
-            if (existingRangeData != null) {
-              fileData.myRangesData.put(dataEntry.getKey(),
-                                        new RangeData(existingRangeData.startLine, existingRangeData.startColumn, existingRangeData.endLine,
-                                                      existingRangeData.endColumn, existingRangeData.statements,
-                                                      existingRangeData.hits + dataEntry.getValue().hits));
-            }
-            else {
-              fileData.myRangesData.put(dataEntry.getKey(), dataEntry.getValue());
-            }
-          }
-        }
-        else {
-          myFilesData.put(filePath, fileDataToMerge);
-        }
+      for (FileData fileDataToMerge : ((GoCoverageProjectData)data).myFilesData.values()) {
+        FileData fileData = myFilesData.get(fileDataToMerge.myFilePath);
+        myFilesData.put(fileDataToMerge.myFilePath, fileData != null ? fileData.merge(fileDataToMerge) : fileDataToMerge);
       }
     }
   }
@@ -101,90 +71,224 @@ public class GoCoverageProjectData extends ProjectData {
     return myFilesData.hashCode();
   }
 
+  /**
+   * Collects coverage blocks of a profile, blocks may come in any order and repeat.
+   */
+  public static class Builder {
+    private final Map<String, FileDataBuilder> myFiles = ContainerUtil.newHashMap();
+
+    public void addData(@NotNull String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
+      myFiles.computeIfAbsent(filePath, FileDataBuilder::new).add(startLine, startColumn, endLine, endColumn, statements, hits);
+    }
+
+    @NotNull
+    public GoCoverageProjectData build() {
+      GoCoverageProjectData result = new GoCoverageProjectData();
+      for (FileDataBuilder builder : myFiles.values()) {
+        FileData fileData = builder.build();
+        result.myFilesData.put(fileData.myFilePath, fileData);
+      }
+      return result;
+    }
+  }
+
+  private static class FileDataBuilder {
+    @NotNull private final String myFilePath;
+    @NotNull private int[] myRanges = new int[16 * FileData.RANGE_SIZE];
+    private int myRangesCount;
+    private boolean mySorted = true;
+
+    private FileDataBuilder(@NotNull String filePath) {
+      myFilePath = filePath;
+    }
+
+    private void add(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
+      int offset = myRangesCount * FileData.RANGE_SIZE;
+      if (offset + FileData.RANGE_SIZE > myRanges.length) {
+        myRanges = Arrays.copyOf(myRanges, myRanges.length * 2);
+      }
+      if (mySorted && myRangesCount > 0 &&
+          FileData.compare(myRanges, offset - FileData.RANGE_SIZE, startLine, startColumn, endLine, endColumn) >= 0) {
+        mySorted = false;
+      }
+      myRanges[offset + FileData.START_LINE] = startLine;
+      myRanges[offset + FileData.START_COLUMN] = startColumn;
+      myRanges[offset + FileData.END_LINE] = endLine;
+      myRanges[offset + FileData.END_COLUMN] = endColumn;
+      myRanges[offset + FileData.STATEMENTS] = statements;
+      myRanges[offset + FileData.HITS] = hits;
+      myRangesCount++;
+    }
+
+    @NotNull
+    private FileData build() {
+      return mySorted
+             ? new FileData(myFilePath, Arrays.copyOf(myRanges, myRangesCount * FileData.RANGE_SIZE), myRangesCount)
+             : FileData.normalize(myFilePath, myRanges, myRangesCount);
+    }
+  }
+
+  /**
+   * Coverage blocks of a file stored in a single int array, {@link #RANGE_SIZE} values per block,
+   * sorted by start and end positions. A block is present at most once.
+   */
   public static class FileData {
+    private static final int START_LINE = 0;
+    private static final int START_COLUMN = 1;
+    private static final int END_LINE = 2;
+    private static final int END_COLUMN = 3;
+    private static final int STATEMENTS = 4;
+    private static final int HITS = 5;
+    private static final int RANGE_SIZE = 6;
+
     @NotNull
     public final String myFilePath;
     @NotNull
-    public final Map<String, RangeData> myRangesData = ContainerUtil.newHashMap();
+    private final int[] myRanges;
+    private final int myRangesCount;
 
-    public FileData(@NotNull String filePath) {
+    private FileData(@NotNull String filePath, @NotNull int[] ranges, int rangesCount) {
       myFilePath = filePath;
+      myRanges = ranges;
+      myRangesCount = rangesCount;
     }
 
-    public void add(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-      myRangesData.put(rangeKey(startLine, startColumn, endLine, endColumn),
-                       new RangeData(startLine, startColumn, endLine, endColumn, statements, hits));
+    public int getRangesCount() {
+      return myRangesCount;
     }
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (!(o instanceof FileData)) return false;
+    public int getStartLine(int index) {
+      return myRanges[index * RANGE_SIZE + START_LINE];
+    }
 
-      FileData fileData = (FileData)o;
+    public int getStartColumn(int index) {
+      return myRanges[index * RANGE_SIZE + START_COLUMN];
+    }
 
-      if (!myFilePath.equals(fileData.myFilePath)) return false;
-      return myRangesData.equals(fileData.myRangesData);
+    public int getEndLine(int index) {
+      return myRanges[index * RANGE_SIZE + END_LINE];
     }
 
-    @Override
-    public int hashCode() {
-      int result = myFilePath.hashCode();
-      result = 31 * result + myRangesData.hashCode();
+    public int getEndColumn(int index) {
+      return myRanges[index * RANGE_SIZE + END_COLUMN];
+    }
+
+    public int getStatements(int index) {
+      return myRanges[index * RANGE_SIZE + STATEMENTS];
+    }
+
+    public int getHits(int index) {
+      return myRanges[index * RANGE_SIZE + HITS];
+    }
+
+    public int getStatementsCount() {
+      int result = 0;
+      for (int i = 0; i < myRangesCount; i++) {
+        result += getStatements(i);
+      }
       return result;
     }
-  }
 
-  public static class RangeData {
-    public final int startLine;
-    public final int startColumn;
-    public final int endLine;
-    public final int endColumn;
-    public final int hits;
-    public final int statements;
+    public int getCoveredStatementsCount() {
+      int result = 0;
+      for (int i = 0; i < myRangesCount; i++) {
+        if (getHits(i) > 0) {
+          result += getStatements(i);
+        }
+      }
+      return result;
+    }
 
-    public RangeData(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-      this.startLine = startLine;
-      this.startColumn = startColumn;
-      this.endLine = endLine;
-      this.endColumn = endColumn;
-      this.hits = hits;
-      this.statements = statements;
+    /**
+     * Sorts blocks added out of order, the last one of equal blocks wins as it did for a map keyed by block position.
+     */
+    @NotNull
+    private static FileData normalize(@NotNull String filePath, @NotNull int[] ranges, int rangesCount) {
+      Integer[] order = new Integer[rangesCount];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      // stable sort keeps equal blocks in the order they were added
+      Arrays.sort(order, (i1, i2) -> compare(ranges, i1 * RANGE_SIZE, ranges, i2 * RANGE_SIZE));
+      int[] result = new int[rangesCount * RANGE_SIZE];
+      int count = 0;
+      for (int index : order) {
+        int offset = index * RANGE_SIZE;
+        if (count > 0 && compare(result, (count - 1) * RANGE_SIZE, ranges, offset) == 0) {
+          count--;
+        }
+        System.arraycopy(ranges, offset, result, count * RANGE_SIZE, RANGE_SIZE);
+        count++;
+      }
+      return new FileData(filePath, result, count);
+    }
+
+    /**
+     * @return blocks of both file data, hits of equal blocks are summed up
+     */
+    @NotNull
+    private FileData merge(@NotNull FileData other) {
+      int[] result = new int[(myRangesCount + other.myRangesCount) * RANGE_SIZE];
+      int i = 0;
+      int j = 0;
+      int count = 0;
+      while (i < myRangesCount || j < other.myRangesCount) {
+        int comparison = i == myRangesCount ? 1
+                         : j == other.myRangesCount ? -1
+                           : compare(myRanges, i * RANGE_SIZE, other.myRanges, j * RANGE_SIZE);
+        if (comparison <= 0) {
+          System.arraycopy(myRanges, i * RANGE_SIZE, result, count * RANGE_SIZE, RANGE_SIZE);
+          if (comparison == 0) {
+            result[count * RANGE_SIZE + HITS] += other.myRanges[j * RANGE_SIZE + HITS];
+            j++;
+          }
+          i++;
+        }
+        else {
+          System.arraycopy(other.myRanges, j * RANGE_SIZE, result, count * RANGE_SIZE, RANGE_SIZE);
+          j++;
+        }
+        count++;
+      }
+      return new FileData(myFilePath, result, count);
+    }
+
+    private static int compare(@NotNull int[] ranges, int offset, int startLine, int startColumn, int endLine, int endColumn) {
+      int result = Integer.compare(ranges[offset + START_LINE], startLine);
+      if (result != 0) return result;
+      result = Integer.compare(ranges[offset + START_COLUMN], startColumn);
+      if (result != 0) return result;
+      result = Integer.compare(ranges[offset + END_LINE], endLine);
+      return result != 0 ? result : Integer.compare(ranges[offset + END_COLUMN], endColumn);
+    }
+
+    private static int compare(@NotNull int[] ranges1, int offset1, @NotNull int[] ranges2, int offset2) {
+      return compare(ranges1, offset1, ranges2[offset2 + START_LINE], ranges2[offset2 + START_COLUMN],
+                     ranges2[offset2 + END_LINE], ranges2[offset2 + END_COLUMN]);
     }
 
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
-      if (!(o instanceof RangeData)) return false;
+      if (!(o instanceof FileData)) return false;
 
-      RangeData data = (RangeData)o;
+      FileData fileData = (FileData)o;
 
-      if (startLine != data.startLine) return false;
-      if (startColumn != data.startColumn) return false;
-      if (endLine != data.endLine) return false;
-      if (endColumn != data.endColumn) return false;
-      if (hits != data.hits) return false;
-      return statements == data.statements;
+      if (!myFilePath.equals(fileData.myFilePath)) return false;
+      if (myRangesCount != fileData.myRangesCount) return false;
+      for (int i = 0; i < myRangesCount * RANGE_SIZE; i++) {
+        if (myRanges[i] != fileData.myRanges[i]) return false;
+      }
+      return true;
     }
 
     @Override
     public int hashCode() {
-      int result = startLine;
-      result = 31 * result + startColumn;
-      result = 31 * result + endLine;
-      result = 31 * result + endColumn;
-      result = 31 * result + hits;
-      result = 31 * result + statements;
+      int result = myFilePath.hashCode();
+      for (int i = 0; i < myRangesCount * RANGE_SIZE; i++) {
+        result = 31 * result + myRanges[i];
+      }
       return result;
     }
-
-    @Override
-    public String toString() {
-      return rangeKey(startLine, startColumn, endLine, endColumn) + "; hits: " + hits + "; statements: " + statements;
-    }
-  }
-
-  private static String rangeKey(int startLine, int startColumn, int endLine, int endColumn) {
-    return startLine + ":" + startColumn + "-" + endLine + ":" + endColumn;
   }
 }
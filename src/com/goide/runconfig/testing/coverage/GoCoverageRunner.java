@@ -27,17 +27,16 @@ import com.intellij.execution.configurations.RunConfigurationBase;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.rt.coverage.data.ClassData;
 import com.intellij.rt.coverage.data.LineData;
 import com.intellij.rt.coverage.data.ProjectData;
-import gnu.trove.TIntObjectHashMap;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.util.List;
+import java.util.Map;
 
 public class GoCoverageRunner extends CoverageRunner {
   private static final Logger LOG = Logger.getInstance(GoCoverageRunner.class);
@@ -45,6 +44,8 @@ public class GoCoverageRunner extends CoverageRunner {
   private static final String ID = "GoCoverage";
   private static final String DATA_FILE_EXTENSION = "out";
   private static final String PRESENTABLE_NAME = GoConstants.GO;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final char[] BLOCK_SEPARATORS = {'.', ',', '.', ' ', ' '};
 
   @Override
   public ProjectData loadCoverageData(@NotNull File sessionDataFile, @Nullable CoverageSuite baseCoverageSuite) {
@@ -60,24 +61,10 @@ public class GoCoverageRunner extends CoverageRunner {
                     ? ((ModuleBasedConfiguration)configuration).getConfigurationModule().getModule()
                     : null;
 
-    try {
-      BufferedReader reader = new BufferedReader(new FileReader(sessionDataFile.getAbsolutePath()));
-      try {
-        return parseCoverage(reader, project, module);
-      }
-      catch (IOException e) {
-        LOG.warn(e);
-      }
-      finally {
-        try {
-          reader.close();
-        }
-        catch (IOException e) {
-          LOG.warn(e);
-        }
-      }
+    try (BufferedReader reader = new BufferedReader(new FileReader(sessionDataFile.getAbsolutePath()), BUFFER_SIZE)) {
+      return parseCoverage(reader, project, module);
     }
-    catch (FileNotFoundException e) {
+    catch (IOException e) {
       LOG.warn(e);
     }
 
@@ -88,64 +75,60 @@ public class GoCoverageRunner extends CoverageRunner {
   public static GoCoverageProjectData parseCoverage(@NotNull BufferedReader dataReader,
                                                     @NotNull Project project,
                                                     @Nullable Module module) throws IOException {
-    GoCoverageProjectData result = new GoCoverageProjectData();
+    GoCoverageProjectData.Builder builder = new GoCoverageProjectData.Builder();
+    // profile lines are grouped by file, so the same file name repeats on thousands of consecutive lines
+    Map<String, String> resolvedPaths = ContainerUtil.newHashMap();
+    String fileName = null;
+    String filePath = null;
+    int[] numbers = new int[6];
     String line;
 
     while ((line = dataReader.readLine()) != null) {
-      if (line.isEmpty()) continue;
-      List<String> fileNameTail = StringUtil.split(line, ":");
-      VirtualFile file = GoPackageUtil.findByImportPath(fileNameTail.get(0), project, module);
-      if (file == null) continue;
-      String filePath = file.getPath();
-
-      List<String> tailParts = StringUtil.split(fileNameTail.get(1), " ");
-      if (tailParts.size() != 3) continue;
-
-      int statements = Integer.parseInt(tailParts.get(1));
-      int hit = Integer.parseInt(tailParts.get(2));
-
-      String offsets = tailParts.get(0);
-      int firstDot = offsets.indexOf('.');
-      int comma = offsets.indexOf(',', firstDot);
-      int secondDot = offsets.indexOf('.', comma);
-      if (firstDot == -1 || comma == -1 || secondDot == -1) continue;
-
-      int lineStart = Integer.parseInt(offsets.substring(0, firstDot));
-      int columnStart = Integer.parseInt(offsets.substring(firstDot + 1, comma));
-      int lineEnd = Integer.parseInt(offsets.substring(comma + 1, secondDot));
-      int columnEnd = Integer.parseInt(offsets.substring(secondDot + 1));
-
-      result.addData(filePath, lineStart, columnStart, lineEnd, columnEnd, statements, hit);
+      int colon = line.indexOf(':');
+      if (colon <= 0) continue;
+      if (fileName == null || colon != fileName.length() || !line.startsWith(fileName)) {
+        fileName = line.substring(0, colon);
+        filePath = resolvedPaths.computeIfAbsent(fileName, name -> {
+          VirtualFile file = GoPackageUtil.findByImportPath(name, project, module);
+          return file != null ? file.getPath() : "";
+        });
+      }
+      if (filePath.isEmpty()) continue;
+      if (!parseBlock(line, colon + 1, numbers)) continue;
+
+      builder.addData(filePath, numbers[0], numbers[1], numbers[2], numbers[3], numbers[4], numbers[5]);
     }
 
+    GoCoverageProjectData result = builder.build();
     result.processFiles(fileData -> {
       ClassData classData = result.getOrCreateClassData(fileData.myFilePath);
       int max = -1;
-      TIntObjectHashMap<LineData> linesMap = new TIntObjectHashMap<>();
-      for (GoCoverageProjectData.RangeData rangeData : fileData.myRangesData.values()) {
-        for (int i = rangeData.startLine; i <= rangeData.endLine; i++) {
-          LineData existingData = linesMap.get(i);
+      for (int i = 0; i < fileData.getRangesCount(); i++) {
+        max = Math.max(max, fileData.getEndLine(i));
+      }
+      LineData[] linesArray = new LineData[max + 1];
+      for (int i = 0; i < fileData.getRangesCount(); i++) {
+        int hits = fileData.getHits(i);
+        for (int line = fileData.getStartLine(i); line <= fileData.getEndLine(i); line++) {
+          LineData existingData = linesArray[line];
           if (existingData != null) {
-            existingData.setHits(existingData.getHits() + rangeData.hits);
+            existingData.setHits(existingData.getHits() + hits);
             // emulate partial
             existingData.setFalseHits(0, 0);
             existingData.setTrueHits(0, 0);
           }
           else {
-            LineData newData = new LineData(i, null);
-            newData.setHits(newData.getHits() + rangeData.hits);
-            linesMap.put(i, newData);
+            LineData newData = new LineData(line, null);
+            newData.setHits(hits);
+            linesArray[line] = newData;
           }
         }
-        max = Math.max(max, rangeData.endLine);
       }
-
-      LineData[] linesArray = new LineData[max + 1];
-      linesMap.forEachValue(data -> {
-        data.fillArrays();
-        linesArray[data.getLineNumber()] = data;
-        return true;
-      });
+      for (LineData data : linesArray) {
+        if (data != null) {
+          data.fillArrays();
+        }
+      }
       classData.setLines(linesArray);
       return true;
     });
@@ -153,6 +136,39 @@ public class GoCoverageRunner extends CoverageRunner {
     return result;
   }
 
+  /**
+   * Parses a block like {@code 20.56,21.14 1 1} (start line and column, end line and column, statements, hits)
+   * without splitting the line.
+   */
+  private static boolean parseBlock(@NotNull String line, int offset, @NotNull int[] numbers) {
+    int start = offset;
+    for (int i = 0; i < numbers.length; i++) {
+      int end = i < BLOCK_SEPARATORS.length ? line.indexOf(BLOCK_SEPARATORS[i], start) : line.length();
+      if (end < 0) return false;
+      int number = parseNonNegativeInt(line, start, end);
+      if (number < 0) return false;
+      numbers[i] = number;
+      start = end + 1;
+    }
+    return true;
+  }
+
+  /**
+   * @return -1 if the text is not a number or doesn't fit into an int, like {@link Integer#parseInt} would fail
+   */
+  private static int parseNonNegativeInt(@NotNull String s, int start, int end) {
+    if (start >= end) return -1;
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') return -1;
+      int digit = c - '0';
+      if (result > (Integer.MAX_VALUE - digit) / 10) return -1;
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
   @Override
   public String getPresentableName() {
     return PRESENTABLE_NAME;
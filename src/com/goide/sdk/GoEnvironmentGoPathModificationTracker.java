@@ -17,22 +17,67 @@
 package com.goide.sdk;
 
 import com.goide.GoEnvironmentUtil;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.openapi.vfs.*;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
 import com.intellij.util.SystemProperties;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
+/**
+ * Keeps the GOPATH roots from the environment in sync with the file system.
+ * <p/>
+ * Only creation, deletion, moving, copying and renaming of a tracked path or of one of its ancestors changes the roots.
+ * Events are first filtered by type and then by file name against the names the tracked paths consist of,
+ * so a path is computed only for the rare events that may matter, even in batches of tens of thousands of events.
+ */
 public class GoEnvironmentGoPathModificationTracker {
   private final Set<String> pathsToTrack = ContainerUtil.newHashSet();
+  private final Set<String> namesToTrack = ContainerUtil.newHashSet();
   private final Collection<VirtualFile> goPathRoots = ContainerUtil.newLinkedHashSet();
 
   public GoEnvironmentGoPathModificationTracker() {
+    this(getEnvironmentGoPaths());
+    ApplicationManager.getApplication().getMessageBus().connect().subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        handleEvents(events);
+      }
+    });
+  }
+
+  private GoEnvironmentGoPathModificationTracker(@NotNull Collection<String> paths) {
+    for (String path : paths) {
+      String systemIndependentPath = StringUtil.trimEnd(FileUtil.toSystemIndependentName(path), "/");
+      if (systemIndependentPath.isEmpty()) continue;
+      pathsToTrack.add(systemIndependentPath);
+      namesToTrack.addAll(StringUtil.split(systemIndependentPath, "/"));
+    }
+    recalculateFiles();
+  }
+
+  @TestOnly
+  @NotNull
+  public static GoEnvironmentGoPathModificationTracker createForTests(@NotNull Collection<String> paths) {
+    return new GoEnvironmentGoPathModificationTracker(paths);
+  }
+
+  @NotNull
+  private static Collection<String> getEnvironmentGoPaths() {
+    Collection<String> result = ContainerUtil.newArrayList();
     String goPath = GoEnvironmentUtil.retrieveGoPathFromEnvironment();
     if (goPath != null) {
       String home = SystemProperties.getUserHome();
@@ -43,38 +88,63 @@ public class GoEnvironmentGoPathModificationTracker {
           }
           s = s.replaceAll("\\$HOME", home);
         }
-        pathsToTrack.add(s);
+        result.add(s);
       }
     }
-    recalculateFiles();
-    
-    VirtualFileManager.getInstance().addVirtualFileListener(new VirtualFileListener() {
-      @Override
-      public void fileCreated(@NotNull VirtualFileEvent event) {
-        handleEvent(event);
-      }
-
-      @Override
-      public void fileDeleted(@NotNull VirtualFileEvent event) {
-        handleEvent(event);
-      }
+    return result;
+  }
 
-      @Override
-      public void fileMoved(@NotNull VirtualFileMoveEvent event) {
-        handleEvent(event);
+  /**
+   * @return true if the roots were recalculated
+   */
+  public boolean handleEvents(@NotNull List<? extends VFileEvent> events) {
+    if (pathsToTrack.isEmpty()) return false;
+    for (VFileEvent event : events) {
+      if (affectsTrackedPaths(event)) {
+        recalculateFiles();
+        return true;
       }
+    }
+    return false;
+  }
 
-      @Override
-      public void fileCopied(@NotNull VirtualFileCopyEvent event) {
-        handleEvent(event);
-      }
+  private boolean affectsTrackedPaths(@NotNull VFileEvent event) {
+    if (event instanceof VFileCreateEvent) {
+      VFileCreateEvent createEvent = (VFileCreateEvent)event;
+      return isTracked(createEvent.getParent(), createEvent.getChildName());
+    }
+    if (event instanceof VFileDeleteEvent) {
+      VirtualFile file = event.getFile();
+      return isTracked(file.getParent(), file.getName());
+    }
+    if (event instanceof VFileMoveEvent) {
+      VFileMoveEvent moveEvent = (VFileMoveEvent)event;
+      String name = moveEvent.getFile().getName();
+      return isTracked(moveEvent.getOldParent(), name) || isTracked(moveEvent.getNewParent(), name);
+    }
+    if (event instanceof VFileCopyEvent) {
+      VFileCopyEvent copyEvent = (VFileCopyEvent)event;
+      return isTracked(copyEvent.getNewParent(), copyEvent.getNewChildName());
+    }
+    if (event instanceof VFilePropertyChangeEvent) {
+      VFilePropertyChangeEvent propertyChangeEvent = (VFilePropertyChangeEvent)event;
+      if (!VirtualFile.PROP_NAME.equals(propertyChangeEvent.getPropertyName())) return false;
+      VirtualFile parent = propertyChangeEvent.getFile().getParent();
+      return isTracked(parent, (String)propertyChangeEvent.getOldValue()) || isTracked(parent, (String)propertyChangeEvent.getNewValue());
+    }
+    return false;
+  }
 
-      private void handleEvent(VirtualFileEvent event) {
-        if (pathsToTrack.contains(event.getFile().getPath())) {
-          recalculateFiles();
-        }
-      }
-    });
+  /**
+   * @return true if the child is a tracked path or an ancestor of it
+   */
+  private boolean isTracked(@Nullable VirtualFile parent, @Nullable String childName) {
+    if (parent == null || childName == null || !namesToTrack.contains(childName)) return false;
+    String path = StringUtil.trimEnd(parent.getPath(), "/") + "/" + childName;
+    for (String trackedPath : pathsToTrack) {
+      if (FileUtil.startsWith(trackedPath, path)) return true;
+    }
+    return false;
   }
 
   private void recalculateFiles() {
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.sdk;
+
+import com.goide.GoFileType;
+import com.goide.psi.impl.GoCodeBlockModificationTracker;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks modifications of Go packages, i.e. of the Go files in a single directory.
+ * A package tracker changes when a Go file of the directory is created, deleted, moved or renamed,
+ * or when it is edited outside of function bodies, so caches computed from the declarations of one package
+ * survive editing of other packages and typing inside function bodies.
+ * <p/>
+ * Stamps are taken from a single counter, so a tracker of a package never returns a non-zero value it returned before.
+ * Stamps of deleted directories and of packages nested in a moved or renamed directory are evicted,
+ * such trackers return zero again only after a VFS structure modification.
+ */
+public class GoPackageModificationTracker {
+  private final AtomicLong myCounter = new AtomicLong();
+  private final ConcurrentMap<VirtualFile, Long> myStamps = ContainerUtil.newConcurrentMap();
+
+  public GoPackageModificationTracker(@NotNull Project project) {
+    project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+          handleEvent(event);
+        }
+      }
+    });
+  }
+
+  public static GoPackageModificationTracker getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoPackageModificationTracker.class);
+  }
+
+  /**
+   * @return tracker of the package in the given directory, suitable as a cached value dependency
+   */
+  @NotNull
+  public static ModificationTracker forDirectory(@NotNull PsiDirectory directory) {
+    return getInstance(directory.getProject()).getTracker(directory.getVirtualFile());
+  }
+
+  /**
+   * @return dependencies of a cached value computed from the package containing the given element
+   */
+  @NotNull
+  public static Object[] getPackageDependencies(@NotNull PsiElement element) {
+    PsiFile file = element.getContainingFile();
+    PsiDirectory directory = file != null ? file.getOriginalFile().getParent() : null;
+    if (directory == null) return new Object[]{PsiModificationTracker.MODIFICATION_COUNT};
+    // edits of a physical file outside of function bodies bump the tracker of its package, edits of a copy don't
+    return file.isPhysical() ? new Object[]{forDirectory(directory)} : new Object[]{file, forDirectory(directory)};
+  }
+
+  @NotNull
+  public ModificationTracker getTracker(@NotNull VirtualFile directory) {
+    return () -> getModificationCount(directory);
+  }
+
+  public long getModificationCount(@NotNull VirtualFile directory) {
+    Long stamp = myStamps.get(directory);
+    return stamp != null ? stamp : 0;
+  }
+
+  /**
+   * Called for changes of a Go file outside of function bodies, see {@link GoCodeBlockModificationTracker}
+   */
+  public void incModificationCount(@NotNull PsiFile file) {
+    VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+    if (virtualFile != null) {
+      incModificationCount(virtualFile.getParent());
+    }
+  }
+
+  private void incModificationCount(@Nullable VirtualFile directory) {
+    if (directory != null) {
+      myStamps.put(directory, myCounter.incrementAndGet());
+    }
+  }
+
+  private void handleEvent(@NotNull VFileEvent event) {
+    if (event instanceof VFileCreateEvent) {
+      VFileCreateEvent createEvent = (VFileCreateEvent)event;
+      if (isGoFile(createEvent.getChildName())) {
+        incModificationCount(createEvent.getParent());
+      }
+      return;
+    }
+    VirtualFile file = event.getFile();
+    if (file == null) return;
+    if (file.isDirectory()) {
+      if (event instanceof VFileDeleteEvent) {
+        // a deleted directory never comes back as the same virtual file, dependent caches are covered by VFS structure modifications
+        myStamps.keySet().removeIf(directory -> VfsUtilCore.isAncestor(file, directory, false));
+      }
+      else if (event instanceof VFileMoveEvent || event instanceof VFilePropertyChangeEvent) {
+        // import path of the package is changed, nested packages are covered by VFS structure modifications
+        // and get fresh stamps when they are changed again
+        myStamps.keySet().removeIf(directory -> VfsUtilCore.isAncestor(file, directory, true));
+        incModificationCount(file);
+      }
+      return;
+    }
+    if (event instanceof VFilePropertyChangeEvent) {
+      VFilePropertyChangeEvent propertyChangeEvent = (VFilePropertyChangeEvent)event;
+      if (VirtualFile.PROP_NAME.equals(propertyChangeEvent.getPropertyName()) &&
+          (isGoFile((String)propertyChangeEvent.getOldValue()) || isGoFile(file.getName()))) {
+        incModificationCount(file.getParent());
+      }
+      return;
+    }
+    if (!isGoFile(file.getName())) return;
+    if (event instanceof VFileMoveEvent) {
+      incModificationCount(((VFileMoveEvent)event).getOldParent());
+      incModificationCount(((VFileMoveEvent)event).getNewParent());
+    }
+    else if (event instanceof VFileCopyEvent) {
+      incModificationCount(((VFileCopyEvent)event).getNewParent());
+    }
+    else {
+      incModificationCount(file.getParent());
+    }
+  }
+
+  private static boolean isGoFile(@Nullable String fileName) {
+    return fileName != null && FileUtilRt.extensionEquals(fileName, GoFileType.INSTANCE.getDefaultExtension());
+  }
+}
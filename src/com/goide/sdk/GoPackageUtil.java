@@ -21,11 +21,15 @@ import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
 import com.goide.psi.GoFile;
 import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.stubs.index.GoImportPathIndex;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -44,6 +48,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 public class GoPackageUtil {
@@ -106,10 +111,12 @@ public class GoPackageUtil {
     return CachedValuesManager.getManager(dir.getProject()).getCachedValue(dir, key, () -> {
       Module module = ModuleUtilCore.findModuleForPsiElement(dir);
       GoBuildTargetSettings buildTargetSettings = module != null ? GoModuleSettings.getInstance(module).getBuildTargetSettings() : null;
-      // todo[zolotov]: implement package modification tracker
+      ModificationTracker packageTracker = GoPackageModificationTracker.forDirectory(dir);
       return buildTargetSettings != null
-             ? CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, module, trimTestSuffices), dir, buildTargetSettings)
-             : CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, null, trimTestSuffices), dir); 
+             ? CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, module, trimTestSuffices), packageTracker,
+                                                 buildTargetSettings, ProjectRootManager.getInstance(dir.getProject()))
+             : CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, null, trimTestSuffices), packageTracker,
+                                                 ProjectRootManager.getInstance(dir.getProject()));
     }, false);
   }
 
@@ -135,7 +142,12 @@ public class GoPackageUtil {
       return null;
     }
     importPath = FileUtil.toSystemIndependentName(importPath);
-    for (VirtualFile root : GoSdkUtil.getSourcesPathsToLookup(project, module)) {
+    LinkedHashSet<VirtualFile> roots = GoSdkUtil.getSourcesPathsToLookup(project, module);
+    VirtualFile packageDirectory = findPackageDirectory(importPath, project, roots);
+    if (packageDirectory != null) {
+      return packageDirectory;
+    }
+    for (VirtualFile root : roots) {
       VirtualFile file = root.findFileByRelativePath(importPath);
       if (file != null) {
         return file;
@@ -143,4 +155,26 @@ public class GoPackageUtil {
     }
     return null;
   }
+
+  /**
+   * Looks up a directory with Go files by import path in the {@link GoImportPathIndex},
+   * the first root in the given order that contains such directory wins.
+   */
+  @Nullable
+  public static VirtualFile findPackageDirectory(@NotNull String importPath,
+                                                 @NotNull Project project,
+                                                 @NotNull Collection<VirtualFile> roots) {
+    if (roots.isEmpty() || DumbService.isDumb(project)) return null;
+    Collection<VirtualFile> directories = GoImportPathIndex.getPackageDirectories(importPath, GlobalSearchScope.allScope(project));
+    if (directories.isEmpty()) return null;
+    for (VirtualFile root : roots) {
+      String expectedPath = root.getPath() + "/" + StringUtil.trimEnd(importPath, "/");
+      for (VirtualFile directory : directories) {
+        if (expectedPath.equals(directory.getPath())) {
+          return directory;
+        }
+      }
+    }
+    return null;
+  }
 }
@@ -296,15 +296,33 @@ public class GoSdkUtil {
     return null;
   }
 
+  /**
+   * @return path of the file relative to the first of the given roots that contains it
+   */
   @Nullable
   public static String getRelativePathToRoots(@NotNull VirtualFile file, @NotNull Collection<VirtualFile> sourceRoots) {
-    for (VirtualFile root : sourceRoots) {
-      String relativePath = VfsUtilCore.getRelativePath(file, root, '/');
-      if (StringUtil.isNotEmpty(relativePath)) {
-        return relativePath;
+    if (sourceRoots.isEmpty()) return null;
+    Set<VirtualFile> roots = sourceRoots instanceof Set ? (Set<VirtualFile>)sourceRoots : newLinkedHashSet(sourceRoots);
+    VirtualFile foundRoot = null;
+    boolean severalRoots = false;
+    for (VirtualFile parent = file.getParent(); parent != null; parent = parent.getParent()) {
+      if (roots.contains(parent)) {
+        severalRoots = foundRoot != null;
+        foundRoot = parent;
+        if (severalRoots) break;
       }
     }
-    return null;
+    if (foundRoot == null) return null;
+    if (severalRoots) {
+      // nested roots, the order of roots defines the precedence
+      for (VirtualFile root : sourceRoots) {
+        if (VfsUtilCore.isAncestor(root, file, true)) {
+          foundRoot = root;
+          break;
+        }
+      }
+    }
+    return StringUtil.nullize(VfsUtilCore.getRelativePath(file, foundRoot, '/'));
   }
 
   @Nullable
@@ -21,89 +21,87 @@ import com.goide.psi.GoVarSpec;
 import com.goide.psi.impl.*;
 import com.goide.stubs.types.*;
 import com.intellij.psi.stubs.IStubElementType;
-import com.intellij.util.ReflectionUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class GoElementTypeFactory {
-  private static final Map<String, Class> TYPES = new HashMap<String, Class>() {
-    {
-      put("ARRAY_OR_SLICE_TYPE", GoArrayOrSliceTypeImpl.class);
-      put("CHANNEL_TYPE", GoChannelTypeImpl.class);
-      put("FUNCTION_TYPE", GoFunctionTypeImpl.class);
-      put("INTERFACE_TYPE", GoInterfaceTypeImpl.class);
-      put("MAP_TYPE", GoMapTypeImpl.class);
-      put("POINTER_TYPE", GoPointerTypeImpl.class);
-      put("STRUCT_TYPE", GoStructTypeImpl.class);
-      put("TYPE", GoTypeImpl.class);
-      put("PAR_TYPE", GoParTypeImpl.class);
-      put("SPEC_TYPE", GoSpecTypeImpl.class);
-      put("TYPE_LIST", GoTypeListImpl.class);
-    }
-  };
-
-  private GoElementTypeFactory() {}
-
-  public static IStubElementType stubFactory(@NotNull String name) {
-    if ("CONST_DEFINITION".equals(name)) return new GoConstDefinitionStubElementType(name);
-    if ("FIELD_DEFINITION".equals(name)) return new GoFieldDefinitionStubElementType(name);
-    if ("ANONYMOUS_FIELD_DEFINITION".equals(name)) return new GoAnonymousFieldDefinitionStubElementType(name);
-    if ("FUNCTION_DECLARATION".equals(name)) return new GoFunctionDeclarationStubElementType(name);
-    if ("METHOD_DECLARATION".equals(name)) return new GoMethodDeclarationStubElementType(name);
-    if ("IMPORT_SPEC".equals(name)) return new GoImportSpecStubElementType(name);
-    if ("PARAM_DEFINITION".equals(name)) return new GoParamDefinitionStubElementType(name);
-    if ("RECEIVER".equals(name)) return new GoReceiverStubElementType(name);
-    if ("TYPE_SPEC".equals(name)) return new GoTypeSpecStubElementType(name);
-    if ("METHOD_SPEC".equals(name)) return new GoMethodSpecStubElementType(name);
-    if ("CONST_SPEC".equals(name)) return new GoConstSpecStubElementType(name);
-    if ("PACKAGE_CLAUSE".equals(name)) return GoPackageClauseStubElementType.INSTANCE;
-    if ("VAR_SPEC".equals(name)) return new GoVarSpecStubElementType(name);
-    if ("SHORT_VAR_DECLARATION".equals(name)) return new GoVarSpecStubElementType(name) {
-      @NotNull
-      @Override
-      public GoVarSpec createPsi(@NotNull GoVarSpecStub stub) {
-        return new GoShortVarDeclarationImpl(stub, this);
+  private static final Map<String, BiFunction<GoTypeStub, IStubElementType, GoType>> TYPES =
+    new HashMap<String, BiFunction<GoTypeStub, IStubElementType, GoType>>() {
+      {
+        put("ARRAY_OR_SLICE_TYPE", GoArrayOrSliceTypeImpl::new);
+        put("CHANNEL_TYPE", GoChannelTypeImpl::new);
+        put("FUNCTION_TYPE", GoFunctionTypeImpl::new);
+        put("INTERFACE_TYPE", GoInterfaceTypeImpl::new);
+        put("MAP_TYPE", GoMapTypeImpl::new);
+        put("POINTER_TYPE", GoPointerTypeImpl::new);
+        put("STRUCT_TYPE", GoStructTypeImpl::new);
+        put("TYPE", GoTypeImpl::new);
+        put("PAR_TYPE", GoParTypeImpl::new);
+        put("SPEC_TYPE", GoSpecTypeImpl::new);
+        put("TYPE_LIST", GoTypeListImpl::new);
       }
     };
-    if ("RECV_STATEMENT".equals(name)) return new GoVarSpecStubElementType(name) {
-      @NotNull
-      @Override
-      public GoVarSpec createPsi(@NotNull GoVarSpecStub stub) {
-        return new GoRecvStatementImpl(stub, this);
-      }
-    };
-    if ("RANGE_CLAUSE".equals(name)) return new GoVarSpecStubElementType(name) {
-      @NotNull
-      @Override
-      public GoVarSpec createPsi(@NotNull GoVarSpecStub stub) {
-        return new GoRangeClauseImpl(stub, this);
+
+  private static final Map<String, Function<String, IStubElementType>> ELEMENT_TYPES =
+    new HashMap<String, Function<String, IStubElementType>>() {
+      {
+        put("CONST_DEFINITION", GoConstDefinitionStubElementType::new);
+        put("FIELD_DEFINITION", GoFieldDefinitionStubElementType::new);
+        put("ANONYMOUS_FIELD_DEFINITION", GoAnonymousFieldDefinitionStubElementType::new);
+        put("FUNCTION_DECLARATION", GoFunctionDeclarationStubElementType::new);
+        put("METHOD_DECLARATION", GoMethodDeclarationStubElementType::new);
+        put("IMPORT_SPEC", GoImportSpecStubElementType::new);
+        put("PARAM_DEFINITION", GoParamDefinitionStubElementType::new);
+        put("RECEIVER", GoReceiverStubElementType::new);
+        put("TYPE_SPEC", GoTypeSpecStubElementType::new);
+        put("METHOD_SPEC", GoMethodSpecStubElementType::new);
+        put("CONST_SPEC", GoConstSpecStubElementType::new);
+        put("PACKAGE_CLAUSE", name -> GoPackageClauseStubElementType.INSTANCE);
+        put("VAR_SPEC", GoVarSpecStubElementType::new);
+        put("SHORT_VAR_DECLARATION", name -> varSpecType(name, GoShortVarDeclarationImpl::new));
+        put("RECV_STATEMENT", name -> varSpecType(name, GoRecvStatementImpl::new));
+        put("RANGE_CLAUSE", name -> varSpecType(name, GoRangeClauseImpl::new));
+        put("VAR_DEFINITION", GoVarDefinitionStubElementType::new);
+        put("LABEL_DEFINITION", GoLabelDefinitionStubElementType::new);
+        put("PARAMETERS", GoParametersStubElementType::new);
+        put("SIGNATURE", GoSignatureStubElementType::new);
+        put("PARAMETER_DECLARATION", GoParameterDeclarationStubElementType::new);
+        put("RESULT", GoResultStubElementType::new);
       }
     };
-    if ("VAR_DEFINITION".equals(name)) return new GoVarDefinitionStubElementType(name);
-    if ("LABEL_DEFINITION".equals(name)) return new GoLabelDefinitionStubElementType(name);
-    if ("PARAMETERS".equals(name)) return new GoParametersStubElementType(name);
-    if ("SIGNATURE".equals(name)) return new GoSignatureStubElementType(name);
-    if ("PARAMETER_DECLARATION".equals(name)) return new GoParameterDeclarationStubElementType(name);
-    if ("RESULT".equals(name)) return new GoResultStubElementType(name);
 
-    Class c = TYPES.get(name);
-    if (c != null) {
+  private GoElementTypeFactory() {}
+
+  public static IStubElementType stubFactory(@NotNull String name) {
+    Function<String, IStubElementType> elementTypeFactory = ELEMENT_TYPES.get(name);
+    if (elementTypeFactory != null) return elementTypeFactory.apply(name);
+
+    BiFunction<GoTypeStub, IStubElementType, GoType> psiFactory = TYPES.get(name);
+    if (psiFactory != null) {
       return new GoTypeStubElementType(name) {
         @NotNull
         @Override
         public GoType createPsi(@NotNull GoTypeStub stub) {
-          try {
-            //noinspection unchecked
-            return (GoType)ReflectionUtil.createInstance(c.getConstructor(stub.getClass(), IStubElementType.class), stub, this);
-          }
-          catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-          }
+          return psiFactory.apply(stub, this);
         }
       };
     }
     throw new RuntimeException("Unknown element type: " + name);
   }
+
+  @NotNull
+  private static GoVarSpecStubElementType varSpecType(@NotNull String name,
+                                                      @NotNull BiFunction<GoVarSpecStub, IStubElementType, GoVarSpec> psiFactory) {
+    return new GoVarSpecStubElementType(name) {
+      @NotNull
+      @Override
+      public GoVarSpec createPsi(@NotNull GoVarSpecStub stub) {
+        return psiFactory.apply(stub, this);
+      }
+    };
+  }
 }
@@ -20,6 +20,7 @@ import com.goide.GoFileElementType;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoPackageClause;
 import com.goide.stubs.types.GoPackageClauseStubElementType;
+import com.goide.util.GoBuildConstraints;
 import com.intellij.psi.stubs.PsiFileStubImpl;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.tree.IStubFileElementType;
@@ -29,6 +30,7 @@ import org.jetbrains.annotations.Nullable;
 
 public class GoFileStub extends PsiFileStubImpl<GoFile> {
   private final StringRef myBuildFlags;
+  private volatile GoBuildConstraints myBuildConstraints;
 
   public GoFileStub(@NotNull GoFile file) {
     this(file, StringRef.fromNullableString(file.getBuildFlags()));
@@ -50,6 +52,15 @@ public class GoFileStub extends PsiFileStubImpl<GoFile> {
     return myBuildFlags.getString();
   }
 
+  @NotNull
+  public GoBuildConstraints getBuildConstraints() {
+    GoBuildConstraints constraints = myBuildConstraints;
+    if (constraints == null) {
+      myBuildConstraints = constraints = GoBuildConstraints.forBuildFlags(getBuildFlags());
+    }
+    return constraints;
+  }
+
   @Nullable
   public StubElement<GoPackageClause> getPackageClauseStub() {
     return findChildStubByType(GoPackageClauseStubElementType.INSTANCE);
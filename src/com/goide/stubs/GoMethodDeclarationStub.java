@@ -24,19 +24,35 @@ import org.jetbrains.annotations.Nullable;
 
 public class GoMethodDeclarationStub extends GoFunctionOrMethodDeclarationStub<GoMethodDeclaration> {
   private final StringRef myTypeName;
+  private final int myArity;
+  private final int myResultCount;
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, StringRef typeName) {
+  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, StringRef typeName,
+                                 int arity, int resultCount) {
     super(parent, elementType, name, isPublic);
     myTypeName = typeName;
+    myArity = arity;
+    myResultCount = resultCount;
   }
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, String typeName) {
+  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, String typeName,
+                                 int arity, int resultCount) {
     super(parent, elementType, name, isPublic);
     myTypeName = StringRef.fromString(typeName);
+    myArity = arity;
+    myResultCount = resultCount;
   }
 
   @Nullable
   public String getTypeName() {
     return myTypeName == null ? null : myTypeName.getString();
   }
+
+  public int getArity() {
+    return myArity;
+  }
+
+  public int getResultCount() {
+    return myResultCount;
+  }
 }
@@ -23,18 +23,25 @@ import com.intellij.util.io.StringRef;
 
 public class GoMethodSpecStub extends GoNamedStub<GoMethodSpec> {
   private final int myArity;
+  private final int myResultCount;
 
-  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, int arity) {
+  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, int arity, int resultCount) {
     super(parent, elementType, name, isPublic);
     myArity = arity;
+    myResultCount = resultCount;
   }
 
-  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, int arity) {
+  public GoMethodSpecStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, int arity, int resultCount) {
     super(parent, elementType, name, isPublic);
     myArity = arity;
+    myResultCount = resultCount;
   }
 
   public int getArity() {
     return myArity;
   }
+
+  public int getResultCount() {
+    return myResultCount;
+  }
 }
@@ -16,22 +16,11 @@
 
 package com.goide.stubs.index;
 
-import com.goide.runconfig.testing.GoTestFinder;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.roots.ContentIterator;
-import com.intellij.openapi.roots.ProjectRootManager;
-import com.intellij.openapi.util.Condition;
-import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.vfs.VirtualFileWithId;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.CachedValue;
-import com.intellij.psi.util.CachedValueProvider;
-import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.IdFilter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,12 +29,10 @@ import java.util.BitSet;
 
 public class GoIdFilter extends IdFilter {
   public static final Logger LOG = Logger.getInstance("#com.intellij.ide.util.gotoByName.DefaultFileNavigationContributor");
-  private static final Key<CachedValue<IdFilter>> PRODUCTION_FILTER = Key.create("PRODUCTION");
-  private static final Key<CachedValue<IdFilter>> TESTS_FILTER = Key.create("TESTS");
 
   private final BitSet myIdSet;
 
-  private GoIdFilter(@NotNull BitSet idSet) {
+  GoIdFilter(@NotNull BitSet idSet) {
     myIdSet = idSet;
   }
 
@@ -55,29 +42,11 @@ public class GoIdFilter extends IdFilter {
   }
 
   public static IdFilter getProductionFilter(@NotNull Project project) {
-    return createIdFilter(project, PRODUCTION_FILTER, file -> !file.isDirectory() && !GoTestFinder.isTestFile(file));
+    return GoIdFilterService.getInstance(project).getProductionFilter();
   }
 
   public static IdFilter getTestsFilter(@NotNull Project project) {
-    return createIdFilter(project, TESTS_FILTER, file -> !file.isDirectory() && GoTestFinder.isTestFile(file));
-  }
-
-  private static IdFilter createIdFilter(@NotNull Project project,
-                                         @NotNull Key<CachedValue<IdFilter>> cacheKey,
-                                         @NotNull Condition<VirtualFile> filterCondition) {
-    return CachedValuesManager.getManager(project).getCachedValue(project, cacheKey, () -> {
-      BitSet bitSet = new BitSet();
-      ContentIterator iterator = fileOrDir -> {
-        if (filterCondition.value(fileOrDir)) {
-          addToBitSet(bitSet, fileOrDir);
-        }
-        ProgressManager.checkCanceled();
-        return true;
-      };
-      FileBasedIndex.getInstance().iterateIndexableFiles(iterator, project, null);
-      return CachedValueProvider.Result.create(new GoIdFilter(bitSet), ProjectRootManager.getInstance(project),
-                                               VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
-    }, false);
+    return GoIdFilterService.getInstance(project).getTestsFilter();
   }
 
   @Nullable
@@ -93,10 +62,18 @@ public class GoIdFilter extends IdFilter {
   }
 
   private static void addToBitSet(@NotNull BitSet set, @NotNull VirtualFile file) {
-    if (file instanceof VirtualFileWithId) {
-      int id = ((VirtualFileWithId)file).getId();
-      if (id < 0) id = -id; // workaround for encountering invalid files, see EA-49915, EA-50599
+    int id = getId(file);
+    if (id >= 0) {
       set.set(id);
     }
   }
+
+  /**
+   * @return id of the file or -1 for a file without id
+   */
+  static int getId(@NotNull VirtualFile file) {
+    if (!(file instanceof VirtualFileWithId)) return -1;
+    int id = ((VirtualFileWithId)file).getId();
+    return id < 0 ? -id : id; // workaround for encountering invalid files, see EA-49915, EA-50599
+  }
 }
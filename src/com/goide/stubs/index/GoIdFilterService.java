@@ -0,0 +1,204 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.runconfig.testing.GoTestFinder;
+import com.intellij.ProjectTopics;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.NewVirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.IdFilter;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Ids of indexable production and test files of a project, see {@link GoIdFilter}.
+ * <p/>
+ * The ids are collected from all indexable files once and then kept up to date from VFS events:
+ * only created, deleted, moved, copied and renamed files are classified again.
+ * A full rescan happens after project roots change, since the set of indexable files changes as a whole.
+ */
+public class GoIdFilterService {
+  @NotNull private final Project myProject;
+  @Nullable private volatile FileIdSets mySets;
+
+  public GoIdFilterService(@NotNull Project project) {
+    myProject = project;
+    MessageBusConnection connection = project.getMessageBus().connect(project);
+    connection.subscribe(ProjectTopics.PROJECT_ROOTS, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(ModuleRootEvent event) {
+        mySets = null;
+      }
+    });
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void before(@NotNull List<? extends VFileEvent> events) {
+        FileIdSets sets = mySets;
+        if (sets == null) return;
+        for (VFileEvent event : events) {
+          if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent) {
+            VirtualFile file = event.getFile();
+            if (file != null) {
+              sets.removeCached(file);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        FileIdSets sets = mySets;
+        if (sets == null) return;
+        for (VFileEvent event : events) {
+          if (event instanceof VFileCreateEvent || event instanceof VFileMoveEvent) {
+            addIfIndexable(sets, event.getFile());
+          }
+          else if (event instanceof VFileCopyEvent) {
+            VFileCopyEvent copyEvent = (VFileCopyEvent)event;
+            addIfIndexable(sets, copyEvent.getNewParent().findChild(copyEvent.getNewChildName()));
+          }
+          else if (event instanceof VFilePropertyChangeEvent &&
+                   VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent)event).getPropertyName())) {
+            VirtualFile file = event.getFile();
+            if (file != null && !file.isDirectory()) {
+              // a file name decides whether it is a test
+              sets.remove(file);
+              addIfIndexable(sets, file);
+            }
+          }
+        }
+      }
+    });
+  }
+
+  @NotNull
+  public static GoIdFilterService getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoIdFilterService.class);
+  }
+
+  @NotNull
+  public IdFilter getProductionFilter() {
+    return getSets().getProductionFilter();
+  }
+
+  @NotNull
+  public IdFilter getTestsFilter() {
+    return getSets().getTestsFilter();
+  }
+
+  @NotNull
+  private FileIdSets getSets() {
+    FileIdSets sets = mySets;
+    if (sets == null) {
+      sets = new FileIdSets();
+      FileIdSets finalSets = sets;
+      FileBasedIndex.getInstance().iterateIndexableFiles(fileOrDir -> {
+        ProgressManager.checkCanceled();
+        finalSets.add(fileOrDir);
+        return true;
+      }, myProject, null);
+      mySets = sets;
+    }
+    return sets;
+  }
+
+  private void addIfIndexable(@NotNull FileIdSets sets, @Nullable VirtualFile file) {
+    if (file == null || !file.isValid()) return;
+    ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(myProject);
+    if (!fileIndex.isInContent(file) && !fileIndex.isInLibraryClasses(file) && !fileIndex.isInLibrarySource(file)) return;
+    if (!file.isDirectory()) {
+      sets.add(file);
+      return;
+    }
+    // a directory may come with its whole subtree, e.g. on moving or copying
+    VfsUtilCore.visitChildrenRecursively(file, new VirtualFileVisitor() {
+      @Override
+      public boolean visitFile(@NotNull VirtualFile child) {
+        ProgressManager.checkCanceled();
+        if (child.isDirectory()) {
+          return !fileIndex.isExcluded(child);
+        }
+        sets.add(child);
+        return true;
+      }
+    });
+  }
+
+  /**
+   * Production and test file ids, updated file by file
+   */
+  public static class FileIdSets {
+    private final BitSet myProductionIds = new BitSet();
+    private final BitSet myTestIds = new BitSet();
+    private final IdFilter myProductionFilter = new GoIdFilter(myProductionIds);
+    private final IdFilter myTestsFilter = new GoIdFilter(myTestIds);
+
+    @NotNull
+    public IdFilter getProductionFilter() {
+      return myProductionFilter;
+    }
+
+    @NotNull
+    public IdFilter getTestsFilter() {
+      return myTestsFilter;
+    }
+
+    public void add(@NotNull VirtualFile file) {
+      int id = GoIdFilter.getId(file);
+      if (id < 0 || file.isDirectory()) return;
+      boolean isTest = GoTestFinder.isTestFile(file);
+      myTestIds.set(id, isTest);
+      myProductionIds.set(id, !isTest);
+    }
+
+    public void remove(@NotNull VirtualFile file) {
+      int id = GoIdFilter.getId(file);
+      if (id >= 0) {
+        myProductionIds.clear(id);
+        myTestIds.clear(id);
+      }
+    }
+
+    /**
+     * Removes the file and, for a directory, its children known to VFS; children never loaded can't have been indexed
+     */
+    void removeCached(@NotNull VirtualFile file) {
+      remove(file);
+      if (file.isDirectory() && file instanceof NewVirtualFile) {
+        for (VirtualFile child : ((NewVirtualFile)file).getCachedChildren()) {
+          removeCached(child);
+        }
+      }
+    }
+  }
+}
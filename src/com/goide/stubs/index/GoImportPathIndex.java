@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileType;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.PathUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Maps the last element of an import path, i.e. the name of a package directory, to the Go files of that directory.
+ * Source roots are project settings and can't be used while indexing, so the full import path is checked on lookup.
+ */
+public class GoImportPathIndex extends ScalarIndexExtension<String> {
+  public static final ID<String, Void> NAME = ID.create("go.import.path");
+
+  @NotNull
+  @Override
+  public ID<String, Void> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, Void, FileContent> getIndexer() {
+    return inputData -> {
+      VirtualFile directory = inputData.getFile().getParent();
+      return directory != null ? Collections.singletonMap(directory.getName(), null) : Collections.emptyMap();
+    };
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @Override
+  public int getVersion() {
+    return 1;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GoFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return false;
+  }
+
+  /**
+   * @return directories in the scope that contain Go files and whose path ends with the given import path
+   */
+  @NotNull
+  public static Collection<VirtualFile> getPackageDirectories(@NotNull String importPath, @NotNull GlobalSearchScope scope) {
+    String path = StringUtil.trimEnd(importPath, "/");
+    String name = PathUtil.getFileName(path);
+    if (name.isEmpty()) return Collections.emptyList();
+    String suffix = "/" + path;
+    Set<VirtualFile> result = ContainerUtil.newLinkedHashSet();
+    for (VirtualFile file : FileBasedIndex.getInstance().getContainingFiles(NAME, name, scope)) {
+      VirtualFile directory = file.getParent();
+      if (directory != null && !result.contains(directory) && directory.getPath().endsWith(suffix)) {
+        result.add(directory);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Processes every directory in the scope that contains Go files, each directory once.
+   */
+  public static boolean processPackageDirectories(@NotNull GlobalSearchScope scope, @NotNull Processor<VirtualFile> processor) {
+    FileBasedIndex index = FileBasedIndex.getInstance();
+    Set<VirtualFile> visited = ContainerUtil.newHashSet();
+    Collection<String> names = ContainerUtil.newArrayList();
+    index.processAllKeys(NAME, new CommonProcessors.CollectProcessor<>(names), scope, null);
+    for (String name : names) {
+      ProgressManager.checkCanceled();
+      for (VirtualFile file : index.getContainingFiles(NAME, name, scope)) {
+        VirtualFile directory = file.getParent();
+        if (directory != null && visited.add(directory) && !processor.process(directory)) return false;
+      }
+    }
+    return true;
+  }
+}
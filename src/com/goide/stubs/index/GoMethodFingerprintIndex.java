@@ -17,31 +17,51 @@
 package com.goide.stubs.index;
 
 import com.goide.GoFileElementType;
-import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoNamedElement;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StringStubIndexExtension;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.Processor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
 
-public class GoMethodFingerprintIndex extends StringStubIndexExtension<GoMethodSpec> {
-  public static final StubIndexKey<String, GoMethodSpec> KEY = StubIndexKey.createIndexKey("go.method.fingerprint");
+/**
+ * Interface methods and method declarations by name and signature shape, see {@link #fingerprint(String, int, int)}.
+ * Narrows down implementation candidates before their method sets are compared.
+ */
+public class GoMethodFingerprintIndex extends StringStubIndexExtension<GoNamedElement> {
+  public static final StubIndexKey<String, GoNamedElement> KEY = StubIndexKey.createIndexKey("go.method.fingerprint");
 
   @Override
   public int getVersion() {
-    return GoFileElementType.VERSION + 1;
+    return GoFileElementType.VERSION + 2;
   }
 
   @NotNull
   @Override
-  public StubIndexKey<String, GoMethodSpec> getKey() {
+  public StubIndexKey<String, GoNamedElement> getKey() {
     return KEY;
   }
 
-  public static Collection<GoMethodSpec> find(@NotNull String name, @NotNull Project project, GlobalSearchScope scope) {
-    return StubIndex.getElements(KEY, name, project, scope, GoMethodSpec.class);
+  @NotNull
+  public static String fingerprint(@NotNull String name, int arity, int resultCount) {
+    return name + "/" + arity + "/" + resultCount;
+  }
+
+  /**
+   * @return {@link com.goide.psi.GoMethodSpec} and {@link com.goide.psi.GoMethodDeclaration} elements with the fingerprint
+   */
+  public static Collection<GoNamedElement> find(@NotNull String fingerprint, @NotNull Project project, GlobalSearchScope scope) {
+    return StubIndex.getElements(KEY, fingerprint, project, scope, GoNamedElement.class);
+  }
+
+  public static boolean process(@NotNull String fingerprint,
+                                @NotNull Project project,
+                                GlobalSearchScope scope,
+                                @NotNull Processor<? super GoNamedElement> processor) {
+    return StubIndex.getInstance().processElements(KEY, fingerprint, project, scope, GoNamedElement.class, processor);
   }
 }
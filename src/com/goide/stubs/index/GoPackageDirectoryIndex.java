@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileType;
+import com.goide.psi.GoFile;
+import com.goide.util.GoBuildConstraints;
+import com.goide.util.GoTargetSystem;
+import com.goide.util.GoUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.ThreeState;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Maps a package name to the Go files declaring it along with everything needed to check them against a build target.
+ * Candidate directories for a package name are collected from the index alone, without loading PSI or stubs of the files.
+ * Import paths depend on source roots, which can't be used while indexing, so they are computed per found directory.
+ */
+public class GoPackageDirectoryIndex extends FileBasedIndexExtension<String, GoPackageDirectoryIndex.FileInfo> {
+  public static final ID<String, FileInfo> NAME = ID.create("go.package.directories");
+
+  @NotNull
+  @Override
+  public ID<String, FileInfo> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, FileInfo, FileContent> getIndexer() {
+    return inputData -> {
+      PsiFile psiFile = inputData.getPsiFile();
+      if (!(psiFile instanceof GoFile)) return Collections.emptyMap();
+      GoFile file = (GoFile)psiFile;
+      String packageName = file.getPackageName();
+      if (StringUtil.isEmpty(packageName)) return Collections.emptyMap();
+      return Collections.singletonMap(packageName, new FileInfo(file.getBuildFlags(), file.hasCPathImport()));
+    };
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<FileInfo> getValueExternalizer() {
+    return FileInfo.EXTERNALIZER;
+  }
+
+  @Override
+  public int getVersion() {
+    return 1;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GoFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  /**
+   * @param target build target a file has to match to make its directory a candidate, {@code null} means any target
+   * @return directories in the scope that contain a file of the package which is not ignored and matches the target
+   */
+  @NotNull
+  public static Set<VirtualFile> getPackageDirectories(@NotNull String packageName,
+                                                       @Nullable GoTargetSystem target,
+                                                       @NotNull GlobalSearchScope scope) {
+    Set<VirtualFile> result = ContainerUtil.newLinkedHashSet();
+    FileBasedIndex.getInstance().processValues(NAME, packageName, null, (file, info) -> {
+      VirtualFile directory = file.getParent();
+      if (directory != null && !result.contains(directory) && !GoUtil.fileToIgnore(file.getName()) && info.matches(file, target)) {
+        result.add(directory);
+      }
+      return true;
+    }, scope);
+    return result;
+  }
+
+  public static final class FileInfo {
+    private static final DataExternalizer<FileInfo> EXTERNALIZER = new DataExternalizer<FileInfo>() {
+      @Override
+      public void save(@NotNull DataOutput out, FileInfo value) throws IOException {
+        out.writeBoolean(value.myCgo);
+        IOUtil.writeUTF(out, StringUtil.notNullize(value.myBuildFlags));
+      }
+
+      @Override
+      public FileInfo read(@NotNull DataInput in) throws IOException {
+        boolean cgo = in.readBoolean();
+        return new FileInfo(StringUtil.nullize(IOUtil.readUTF(in)), cgo);
+      }
+    };
+
+    @Nullable private final String myBuildFlags;
+    private final boolean myCgo;
+
+    FileInfo(@Nullable String buildFlags, boolean cgo) {
+      myBuildFlags = buildFlags;
+      myCgo = cgo;
+    }
+
+    /**
+     * Same as {@link com.goide.util.GoBuildMatcher#matchFile} but without the file itself
+     */
+    public boolean matches(@NotNull VirtualFile file, @Nullable GoTargetSystem target) {
+      if (target == null) return true;
+      if (!GoBuildConstraints.forFileName(file.getName()).match(target)) return false;
+      if (!GoBuildConstraints.forBuildFlags(myBuildFlags).match(target)) return false;
+      return !myCgo || target.cgoEnabled == ThreeState.YES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof FileInfo)) return false;
+      FileInfo info = (FileInfo)o;
+      return myCgo == info.myCgo && StringUtil.equals(myBuildFlags, info.myBuildFlags);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * StringUtil.notNullize(myBuildFlags).hashCode() + (myCgo ? 1 : 0);
+    }
+  }
+}
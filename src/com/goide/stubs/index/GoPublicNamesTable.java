@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubUpdatingIndex;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import gnu.trove.TIntArrayList;
+import gnu.trove.TIntObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Keys of {@link GoAllPublicNamesIndex} found in production files, i.e. qualified names like {@code fmt.Println},
+ * sorted case-insensitively and bucketed by the first characters of their words,
+ * so names matching a completion prefix are found without walking and sorting all keys of the index.
+ * <p/>
+ * The table is built once per project and rebuilt when declarations, files or project roots change.
+ * It isn't restricted to any scope, elements of a name have to be looked up in the index with the actual scope.
+ */
+public class GoPublicNamesTable {
+  private static final Key<CachedValue<GoPublicNamesTable>> TABLE_CACHE = Key.create("GO_PUBLIC_NAMES_TABLE");
+
+  private final String[] myNames;
+  // lower-cased first character of a word -> ascending indices of names having such a word
+  private final TIntObjectHashMap<int[]> myWordStarts;
+
+  GoPublicNamesTable(@NotNull Collection<String> names) {
+    myNames = ArrayUtil.toStringArray(names);
+    Arrays.sort(myNames, String.CASE_INSENSITIVE_ORDER);
+    TIntObjectHashMap<TIntArrayList> wordStarts = new TIntObjectHashMap<>();
+    for (int i = 0; i < myNames.length; i++) {
+      String name = myNames[i];
+      for (int j = 0; j < name.length(); j++) {
+        if (!isWordStart(name, j)) continue;
+        char c = Character.toLowerCase(name.charAt(j));
+        TIntArrayList indices = wordStarts.get(c);
+        if (indices == null) {
+          wordStarts.put(c, indices = new TIntArrayList());
+        }
+        if (indices.isEmpty() || indices.get(indices.size() - 1) != i) {
+          indices.add(i);
+        }
+      }
+    }
+    myWordStarts = new TIntObjectHashMap<>(wordStarts.size());
+    wordStarts.forEachEntry((c, indices) -> {
+      myWordStarts.put(c, indices.toNativeArray());
+      return true;
+    });
+  }
+
+  @NotNull
+  public static GoPublicNamesTable getInstance(@NotNull Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, TABLE_CACHE, () -> {
+      Set<String> names = ContainerUtil.newTroveSet();
+      StubIndex.getInstance().processAllKeys(GoAllPublicNamesIndex.ALL_PUBLIC_NAMES, new CommonProcessors.CollectProcessor<>(names),
+                                             GlobalSearchScope.allScope(project), GoIdFilter.getProductionFilter(project));
+      // the names change only when stubs do, unlike the out of code block and VFS content counters bumped on most edits
+      ModificationTracker stubs = () -> FileBasedIndex.getInstance().getIndexModificationStamp(StubUpdatingIndex.INDEX_ID, project);
+      return CachedValueProvider.Result.create(new GoPublicNamesTable(names), stubs, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                                               ProjectRootManager.getInstance(project),
+                                               DumbService.getInstance(project).getModificationTracker());
+    }, false);
+  }
+
+  /**
+   * Processes names matching the prefix of the matcher: names starting with the prefix go first, then names matching it
+   * from the start of any other word, e.g. of the name after the package, each group in case-insensitive order.
+   * Names of the given packages are processed in the end regardless of the prefix.
+   */
+  public boolean processNames(@NotNull PrefixMatcher matcher, @NotNull Collection<String> packages, @NotNull Processor<String> processor) {
+    String prefix = matcher.getPrefix();
+    BitSet processed = new BitSet(myNames.length);
+    if (prefix.isEmpty() || !Character.isLetterOrDigit(prefix.charAt(0))) {
+      for (int i = 0; i < myNames.length; i++) {
+        ProgressManager.checkCanceled();
+        if ((prefix.isEmpty() || matcher.prefixMatches(myNames[i])) && !process(i, processed, processor)) return false;
+      }
+    }
+    else {
+      String first = prefix.substring(0, 1);
+      for (int i = lowerBound(first); i < myNames.length && StringUtil.startsWithIgnoreCase(myNames[i], first); i++) {
+        ProgressManager.checkCanceled();
+        if (matcher.isStartMatch(myNames[i]) && !process(i, processed, processor)) return false;
+      }
+      int[] candidates = myWordStarts.get(Character.toLowerCase(prefix.charAt(0)));
+      for (int i : candidates != null ? candidates : ArrayUtil.EMPTY_INT_ARRAY) {
+        ProgressManager.checkCanceled();
+        if (!processed.get(i) && matcher.prefixMatches(myNames[i]) && !process(i, processed, processor)) return false;
+      }
+    }
+    for (String packageName : packages) {
+      String packagePrefix = packageName + ".";
+      for (int i = lowerBound(packagePrefix); i < myNames.length && StringUtil.startsWithIgnoreCase(myNames[i], packagePrefix); i++) {
+        ProgressManager.checkCanceled();
+        if (!processed.get(i) && myNames[i].startsWith(packagePrefix) && !process(i, processed, processor)) return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean process(int index, @NotNull BitSet processed, @NotNull Processor<String> processor) {
+    processed.set(index);
+    return processor.process(myNames[index]);
+  }
+
+  private int lowerBound(@NotNull String prefix) {
+    int i = Arrays.binarySearch(myNames, prefix, String.CASE_INSENSITIVE_ORDER);
+    if (i < 0) return -i - 1;
+    while (i > 0 && String.CASE_INSENSITIVE_ORDER.compare(myNames[i - 1], prefix) == 0) i--;
+    return i;
+  }
+
+  /**
+   * A superset of word starts the camel hump matching recognizes: the first character, a character after a separator,
+   * an upper case letter and the first digit of a number
+   */
+  private static boolean isWordStart(@NotNull String name, int i) {
+    if (i == 0) return true;
+    char c = name.charAt(i);
+    char prev = name.charAt(i - 1);
+    if (!Character.isLetterOrDigit(c)) return false;
+    return !Character.isLetterOrDigit(prev) || Character.isUpperCase(c) || Character.isDigit(c) && !Character.isDigit(prev);
+  }
+}
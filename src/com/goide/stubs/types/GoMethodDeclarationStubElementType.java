@@ -17,11 +17,13 @@
 package com.goide.stubs.types;
 
 import com.goide.psi.GoMethodDeclaration;
+import com.goide.psi.GoSignature;
 import com.goide.psi.GoTypeReferenceExpression;
 import com.goide.psi.impl.GoMethodDeclarationImpl;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.index.GoMethodFingerprintIndex;
 import com.goide.stubs.index.GoMethodIndex;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.stubs.IndexSink;
@@ -52,7 +54,9 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
   @Nullable
   @Override
   public GoMethodDeclarationStub createStub(@NotNull GoMethodDeclaration psi, StubElement parentStub) {
-    return new GoMethodDeclarationStub(parentStub, this, psi.getName(), psi.isPublic(), calcTypeText(psi));
+    GoSignature signature = psi.getSignature();
+    return new GoMethodDeclarationStub(parentStub, this, psi.getName(), psi.isPublic(), calcTypeText(psi),
+                                       GoPsiImplUtil.getArity(signature), GoPsiImplUtil.getResultCount(signature));
   }
 
   @Override
@@ -60,12 +64,15 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
     dataStream.writeName(stub.getTypeName());
+    dataStream.writeVarInt(stub.getArity());
+    dataStream.writeVarInt(stub.getResultCount());
   }
 
   @NotNull
   @Override
   public GoMethodDeclarationStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoMethodDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readName());
+    return new GoMethodDeclarationStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readName(),
+                                       dataStream.readVarInt(), dataStream.readVarInt());
   }
 
   @Override
@@ -81,6 +88,10 @@ public class GoMethodDeclarationStubElementType extends GoNamedStubElementType<G
         }
       }
     }
+    String name = stub.getName();
+    if (name != null && stub.getArity() >= 0) {
+      sink.occurrence(GoMethodFingerprintIndex.KEY, GoMethodFingerprintIndex.fingerprint(name, stub.getArity(), stub.getResultCount()));
+    }
   }
 
   @Nullable
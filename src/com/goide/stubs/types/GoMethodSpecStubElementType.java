@@ -17,6 +17,7 @@
 package com.goide.stubs.types;
 
 import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoSignature;
 import com.goide.psi.impl.GoMethodSpecImpl;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.stubs.GoMethodSpecStub;
@@ -38,9 +39,8 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
   public void indexStub(@NotNull GoMethodSpecStub stub, @NotNull IndexSink sink) {
     super.indexStub(stub, sink);
     String name = stub.getName();
-    int arity = stub.getArity();
-    if (name != null && arity >= 0) {
-      sink.occurrence(GoMethodFingerprintIndex.KEY, name + "/" + arity);
+    if (name != null && stub.getArity() >= 0) {
+      sink.occurrence(GoMethodFingerprintIndex.KEY, GoMethodFingerprintIndex.fingerprint(name, stub.getArity(), stub.getResultCount()));
     }
   }
 
@@ -53,8 +53,9 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
   @NotNull
   @Override
   public GoMethodSpecStub createStub(@NotNull GoMethodSpec psi, StubElement parentStub) {
-    int arity = GoPsiImplUtil.getArity(psi.getSignature());
-    return new GoMethodSpecStub(parentStub, this, psi.getName(), psi.isPublic(), arity);
+    GoSignature signature = psi.getSignature();
+    int arity = GoPsiImplUtil.getArity(signature);
+    return new GoMethodSpecStub(parentStub, this, psi.getName(), psi.isPublic(), arity, GoPsiImplUtil.getResultCount(signature));
   }
 
   @Override
@@ -62,11 +63,13 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
     dataStream.writeName(stub.getName());
     dataStream.writeBoolean(stub.isPublic());
     dataStream.writeVarInt(stub.getArity());
+    dataStream.writeVarInt(stub.getResultCount());
   }
 
   @NotNull
   @Override
   public GoMethodSpecStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
-    return new GoMethodSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readVarInt());
+    return new GoMethodSpecStub(parentStub, this, dataStream.readName(), dataStream.readBoolean(), dataStream.readVarInt(),
+                                dataStream.readVarInt());
   }
 }
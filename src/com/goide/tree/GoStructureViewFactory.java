@@ -29,6 +29,7 @@ import com.intellij.lang.PsiStructureViewFactory;
 import com.intellij.openapi.actionSystem.Shortcut;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
@@ -45,7 +46,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-public class GoStructureViewFactory implements PsiStructureViewFactory {
+public class GoStructureViewFactory implements PsiStructureViewFactory, DumbAware {
   @Nullable
   @Override
   public StructureViewBuilder getStructureViewBuilder(@NotNull PsiFile psiFile) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.usages;
+
+import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoTypeSpec;
+import com.goide.psi.impl.GoImplementations;
+import com.intellij.find.findUsages.FindUsagesHandler;
+import com.intellij.find.findUsages.FindUsagesHandlerFactory;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.CommonProcessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Usages of an interface method include usages of the methods implementing it,
+ * since a call through the interface ends up in one of them.
+ */
+public class GoFindUsagesHandlerFactory extends FindUsagesHandlerFactory {
+  @Override
+  public boolean canFindUsages(@NotNull PsiElement element) {
+    return element instanceof GoMethodSpec && GoImplementations.getInterfaceTypeSpec((GoMethodSpec)element) != null;
+  }
+
+  @Nullable
+  @Override
+  public FindUsagesHandler createFindUsagesHandler(@NotNull PsiElement element, boolean forHighlightUsages) {
+    if (forHighlightUsages) return new FindUsagesHandler(element) {};
+    GoMethodSpec method = (GoMethodSpec)element;
+    return new FindUsagesHandler(element) {
+      @NotNull
+      @Override
+      public PsiElement[] getSecondaryElements() {
+        CommonProcessors.CollectUniquesProcessor<PsiElement> processor = new CommonProcessors.CollectUniquesProcessor<>();
+        ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> ReadAction.run(() -> {
+          GoTypeSpec iface = GoImplementations.getInterfaceTypeSpec(method);
+          if (iface != null) {
+            GoImplementations.processImplementingMethods(method, GoImplementations.getImplementationsScope(iface), processor);
+          }
+        }), "Searching for Implementations of " + method.getName(), true, method.getProject());
+        return processor.toArray(PsiElement.EMPTY_ARRAY);
+      }
+    };
+  }
+}
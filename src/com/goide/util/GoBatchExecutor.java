@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.util.Function;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an external tool over many files with as few processes as possible.
+ * Paths are split into batches that fit into a command line, batches run on a pool bounded by the number of processors.
+ */
+public class GoBatchExecutor {
+  private static final Logger LOG = Logger.getInstance(GoBatchExecutor.class);
+  // CreateProcess limits the whole command line to 32767 characters, leave some room for the executable and options
+  public static final int MAX_COMMAND_LINE_LENGTH = SystemInfo.isWindows ? 30000 : 120000;
+  private static final ExecutorService POOL =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor("Go Tools", Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+  private GoBatchExecutor() {}
+
+  /**
+   * @param maxLength maximum total length of paths in a batch, a path longer than that gets a batch of its own
+   */
+  @NotNull
+  public static List<List<String>> split(@NotNull Collection<String> paths, int maxLength) {
+    List<List<String>> result = ContainerUtil.newArrayList();
+    List<String> batch = ContainerUtil.newArrayList();
+    int length = 0;
+    for (String path : paths) {
+      // a separator and quotes
+      int pathLength = path.length() + 3;
+      if (!batch.isEmpty() && length + pathLength > maxLength) {
+        result.add(batch);
+        batch = ContainerUtil.newArrayList();
+        length = 0;
+      }
+      batch.add(path);
+      length += pathLength;
+    }
+    if (!batch.isEmpty()) {
+      result.add(batch);
+    }
+    return result;
+  }
+
+  /**
+   * Executes the tool on all paths and waits for it.
+   * A path is considered failed if the batch containing it failed and either mentioned the path in its error output
+   * or didn't mention any path of the batch.
+   *
+   * @param groups         paths that may be passed to one process, paths of different groups never share a process
+   * @param batchExecutors creates an executor for several paths of a group, {@code null} means the tool takes one path at a time
+   * @param executors      creates an executor for a single path
+   * @return success for every path, paths of batches cancelled by the indicator are missing
+   */
+  @NotNull
+  public static Map<String, Boolean> execute(@NotNull Collection<? extends Collection<String>> groups,
+                                             @NotNull Function<List<String>, GoExecutor> batchExecutors,
+                                             @NotNull Function<String, GoExecutor> executors,
+                                             @Nullable ProgressIndicator indicator) {
+    List<Pair<List<String>, GoExecutor>> batches = ContainerUtil.newArrayList();
+    for (Collection<String> group : groups) {
+      for (List<String> batch : split(group, MAX_COMMAND_LINE_LENGTH)) {
+        GoExecutor executor = batch.size() > 1 ? batchExecutors.fun(batch) : null;
+        if (executor != null) {
+          batches.add(Pair.create(batch, executor));
+          continue;
+        }
+        for (String path : batch) {
+          batches.add(Pair.create(Collections.singletonList(path), null));
+        }
+      }
+    }
+    Map<String, Boolean> result = ContainerUtil.newConcurrentMap();
+    List<GoExecutor> running = ContainerUtil.createLockFreeCopyOnWriteList();
+    AtomicInteger finished = new AtomicInteger();
+    List<Future<?>> futures = ContainerUtil.newArrayList();
+    for (Pair<List<String>, GoExecutor> pair : batches) {
+      futures.add(POOL.submit(() -> {
+        if (indicator != null && indicator.isCanceled()) return;
+        List<String> batch = pair.first;
+        GoExecutor executor = pair.second != null ? pair.second : executors.fun(batch.get(0));
+        running.add(executor);
+        try {
+          boolean success = executor.execute();
+          String stderr = success ? "" : executor.getProcessOutput().getStderr();
+          boolean pathMentioned = ContainerUtil.exists(batch, stderr::contains);
+          for (String path : batch) {
+            result.put(path, success || pathMentioned && !stderr.contains(path));
+          }
+        }
+        finally {
+          running.remove(executor);
+        }
+        if (indicator != null) {
+          indicator.setFraction((double)finished.incrementAndGet() / batches.size());
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      waitFor(future, running, indicator);
+    }
+    return result;
+  }
+
+  private static void waitFor(@NotNull Future<?> future, @NotNull List<GoExecutor> running, @Nullable ProgressIndicator indicator) {
+    while (true) {
+      if (indicator != null && indicator.isCanceled()) {
+        for (GoExecutor executor : running) {
+          ProcessHandler handler = executor.getProcessHandler();
+          if (handler != null) {
+            handler.destroyProcess();
+          }
+        }
+        future.cancel(false);
+        return;
+      }
+      try {
+        future.get(50, TimeUnit.MILLISECONDS);
+        return;
+      }
+      catch (TimeoutException ignored) {
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      catch (java.util.concurrent.ExecutionException e) {
+        LOG.error(e.getCause());
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.goide.GoConstants;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Build constraints of a file compiled once, either from the {@code +build} lines or from the {@code _os_arch} suffix of the file name.
+ * Tags are replaced with ids, so matching against a {@link GoTargetSystem} is a few bit set lookups.
+ *
+ * @see GoBuildMatcher
+ */
+public final class GoBuildConstraints {
+  public static final GoBuildConstraints NONE = new GoBuildConstraints(null, -1, -1, null);
+
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+  private static final int FALSE_TAG = 0;
+  private static final AtomicInteger LAST_TAG = new AtomicInteger(FALSE_TAG);
+  private static final Map<String, Integer> TAGS = ContainerUtil.newConcurrentMap();
+
+  @Nullable private final String myFileName;
+  private final int myOsTag;
+  private final int myArchTag;
+  /**
+   * Lines that all have to match, each is a list of alternatives, each alternative is a list of literals that all have to match.
+   * A literal is a tag id shifted left by one, the lowest bit marks negation.
+   */
+  @Nullable private final int[][][] myLines;
+
+  private GoBuildConstraints(@Nullable String fileName, int osTag, int archTag, @Nullable int[][][] lines) {
+    myFileName = fileName;
+    myOsTag = osTag;
+    myArchTag = archTag;
+    myLines = lines;
+  }
+
+  static int getTagId(@NotNull String tag) {
+    return TAGS.computeIfAbsent(tag, t -> LAST_TAG.incrementAndGet());
+  }
+
+  /**
+   * @param buildFlags {@code +build} lines joined with {@code |}
+   */
+  @NotNull
+  public static GoBuildConstraints forBuildFlags(@Nullable String buildFlags) {
+    if (buildFlags == null) return NONE;
+    List<String> lines = StringUtil.split(buildFlags, "|");
+    int[][][] result = new int[lines.size()][][];
+    for (int i = 0; i < result.length; i++) {
+      String[] alternatives = WHITESPACES.split(lines.get(i));
+      result[i] = new int[alternatives.length][];
+      for (int j = 0; j < alternatives.length; j++) {
+        result[i][j] = compileAlternative(alternatives[j]);
+      }
+    }
+    return new GoBuildConstraints(null, -1, -1, result);
+  }
+
+  /**
+   * @param tag a single tag or a comma separated list of tags that all have to match
+   */
+  @NotNull
+  public static GoBuildConstraints forBuildTag(@NotNull String tag) {
+    return new GoBuildConstraints(null, -1, -1, new int[][][]{{compileAlternative(tag)}});
+  }
+
+  @NotNull
+  public static GoBuildConstraints forFileName(@NotNull String fileName) {
+    String name = StringUtil.substringAfter(fileName, "_");
+    if (StringUtil.isEmpty(name)) {
+      return new GoBuildConstraints(fileName, -1, -1, null);
+    }
+
+    name = StringUtil.trimEnd(FileUtil.getNameWithoutExtension(name), GoConstants.TEST_SUFFIX);
+
+    List<String> parts = StringUtil.split(name, "_");
+    int n = parts.size();
+
+    if (n >= 2 && GoConstants.KNOWN_OS.contains(parts.get(n - 2)) && GoConstants.KNOWN_ARCH.contains(parts.get(n - 1))) {
+      return new GoBuildConstraints(fileName, getTagId(parts.get(n - 2)), getTagId(parts.get(n - 1)), null);
+    }
+    if (n >= 1) {
+      if (GoConstants.KNOWN_OS.contains(parts.get(n - 1))) {
+        return new GoBuildConstraints(fileName, getTagId(parts.get(n - 1)), -1, null);
+      }
+      if (GoConstants.KNOWN_ARCH.contains(parts.get(n - 1))) {
+        return new GoBuildConstraints(fileName, -1, getTagId(parts.get(n - 1)), null);
+      }
+    }
+    return new GoBuildConstraints(fileName, -1, -1, null);
+  }
+
+  @NotNull
+  private static int[] compileAlternative(@NotNull String alternative) {
+    if (!StringUtil.containsChar(alternative, ',')) return new int[]{compileLiteral(alternative)};
+    List<String> tags = StringUtil.split(alternative, ",");
+    int[] result = new int[tags.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = compileLiteral(tags.get(i));
+    }
+    return result;
+  }
+
+  private static int compileLiteral(@NotNull String tag) {
+    // empty tags and bad syntax are rejected always
+    if (tag.isEmpty() || tag.startsWith("!!")) return FALSE_TAG << 1;
+    if (tag.startsWith("!")) return compileLiteral(tag.substring(1)) | 1;
+    return getTagId(tag) << 1;
+  }
+
+  /**
+   * @return name of the file the constraints were compiled from, {@code null} for constraints compiled from {@code +build} lines
+   */
+  @Nullable
+  public String getFileName() {
+    return myFileName;
+  }
+
+  public boolean match(@NotNull GoTargetSystem target) {
+    return matchFileName(target) && matchBuildFlags(target);
+  }
+
+  private boolean matchFileName(@NotNull GoTargetSystem target) {
+    if (myArchTag >= 0 && myArchTag != target.getArchTag()) return false;
+    return myOsTag < 0 || target.matchesOsTag(myOsTag);
+  }
+
+  private boolean matchBuildFlags(@NotNull GoTargetSystem target) {
+    if (myLines == null) return true;
+    for (int[][] line : myLines) {
+      if (!matchLine(line, target)) return false;
+    }
+    return true;
+  }
+
+  private static boolean matchLine(@NotNull int[][] alternatives, @NotNull GoTargetSystem target) {
+    for (int[] literals : alternatives) {
+      if (matchLiterals(literals, target)) return true;
+    }
+    return false;
+  }
+
+  private static boolean matchLiterals(@NotNull int[] literals, @NotNull GoTargetSystem target) {
+    for (int literal : literals) {
+      if (target.hasTag(literal >>> 1) == ((literal & 1) != 0)) return false;
+    }
+    return true;
+  }
+}
@@ -16,25 +16,16 @@
 
 package com.goide.util;
 
-import com.goide.GoConstants;
 import com.goide.psi.GoFile;
-import com.goide.sdk.GoSdkUtil;
-import com.intellij.openapi.util.io.FileUtil;
-import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
 import com.intellij.util.ThreeState;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-
-import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * @see "$GOROOT/src/go/build/build.go" and relevant functions
+ * @see GoBuildConstraints
  */
 public class GoBuildMatcher {
-  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
-
   @NotNull private final GoTargetSystem myTarget;
 
   public GoBuildMatcher(@NotNull GoTargetSystem target) {
@@ -53,96 +44,17 @@ public class GoBuildMatcher {
       // TODO support .c, .cpp and other
       return false;
     }
-    if (((GoFile)file).hasCPathImport() && myTarget.cgoEnabled != ThreeState.YES) return false;
-
-    return match(file.getName(), ((GoFile)file).getBuildFlags(), checkBuildFlags);
-  }
-
-  private boolean match(@NotNull String fileName, @Nullable String buildFlags, boolean checkBuildFlags) {
-    if (!matchFileName(fileName)) return false;
-
-    if (!checkBuildFlags || buildFlags == null) return true;
-    for (String line : StringUtil.split(buildFlags, "|")) {
-      if (!matchBuildFlagsLine(line)) return false;
-    }
-    return true;
-  }
-
-  private boolean matchBuildFlagsLine(@NotNull String line) {
-    for (String tag : WHITESPACES.split(line)) {
-      if (matchBuildFlag(tag)) return true;
-    }
-    return false;
+    GoFile goFile = (GoFile)file;
+    if (!goFile.getFileNameConstraints().match(myTarget)) return false;
+    if (checkBuildFlags && !goFile.getBuildConstraints().match(myTarget)) return false;
+    return !goFile.hasCPathImport() || myTarget.cgoEnabled == ThreeState.YES;
   }
 
   public boolean matchBuildFlag(@NotNull String name) {
-    if (name.isEmpty()) return false;
-
-    if (StringUtil.containsChar(name, ',')) { // comma separated list
-      for (String tag : StringUtil.split(name, ",")) {
-        if (!matchBuildFlag(tag)) {
-          return false;
-        }
-      }
-      return true;
-    }
-
-    // bad syntax, reject always
-    if (name.startsWith("!!")) return false;
-
-    // negation
-    if (name.startsWith("!")) return !matchBuildFlag(name.substring(1));
-
-    if (matchOS(name)) return true;
-    if (GoConstants.KNOWN_COMPILERS.contains(name)) {
-      return myTarget.compiler == null || name.equals(myTarget.compiler);
-    }
-    if (GoConstants.KNOWN_VERSIONS.contains(name)) {
-      return myTarget.goVersion == null || GoSdkUtil.compareVersions(myTarget.goVersion, StringUtil.trimStart(name, "go")) >= 0;
-    }
-    if ("cgo".equals(name)) {
-      return myTarget.cgoEnabled == ThreeState.YES;
-    }
-    return myTarget.supportsFlag(name);
+    return GoBuildConstraints.forBuildTag(name).match(myTarget);
   }
 
   public boolean matchFileName(@NotNull String fileName) {
-    String name = StringUtil.substringAfter(fileName, "_");
-    if (StringUtil.isEmpty(name)) {
-      return true;
-    }
-
-    name = StringUtil.trimEnd(FileUtil.getNameWithoutExtension(name), GoConstants.TEST_SUFFIX);
-
-    List<String> parts = StringUtil.split(name, "_");
-    int n = parts.size();
-
-    if (n >= 2 && GoConstants.KNOWN_OS.contains(parts.get(n - 2)) && GoConstants.KNOWN_ARCH.contains(parts.get(n - 1))) {
-      if (!myTarget.arch.equals(parts.get(n - 1))) {
-        return false;
-      }
-
-      return matchOS(parts.get(n - 2));
-    }
-
-    if (n >= 1) {
-      if (GoConstants.KNOWN_OS.contains(parts.get(n - 1))) {
-        return matchOS(parts.get(n - 1));
-      }
-
-      if (GoConstants.KNOWN_ARCH.contains(parts.get(n - 1))) {
-        return myTarget.arch.equals(parts.get(n - 1));
-      }
-    }
-
-    return true;
-  }
-
-  private boolean matchOS(@NotNull String name) {
-    if (myTarget.os.equals(name) || myTarget.arch.equals(name)) {
-      return true;
-    }
-
-    return GoConstants.LINUX_OS.equals(name) && GoConstants.ANDROID_OS.equals(myTarget.os);
+    return GoBuildConstraints.forFileName(fileName).match(myTarget);
   }
-}
\ No newline at end of file
+}
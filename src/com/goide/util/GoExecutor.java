@@ -317,6 +317,11 @@ public class GoExecutor {
     return myProcessHandler;
   }
 
+  @NotNull
+  public ProcessOutput getProcessOutput() {
+    return myProcessOutput;
+  }
+
   private void showNotification(@NotNull String message, NotificationType type) {
     ApplicationManager.getApplication().invokeLater(() -> {
       String title = getPresentableName();
@@ -24,46 +24,91 @@ import com.goide.sdk.GoSdkUtil;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Trinity;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ThreeState;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Visibility rules of GOPATH packages as seen from a single reference directory.
+ * <p/>
+ * Helpers are cached per module and reference directory until project roots or VFS structure change.
+ * The verdict for a declaration directory doesn't depend on the declaration file, so it's computed once per directory
+ * and only the file-level test and ignore rules are checked on every call.
+ */
 public class GoPathScopeHelper {
+  private static final Key<CachedValue<Map<Trinity<Module, VirtualFile, Boolean>, GoPathScopeHelper>>> HELPERS_CACHE =
+    Key.create("GO_PATH_SCOPE_HELPERS");
+
   @NotNull
   private final Set<VirtualFile> myRoots;
   @Nullable
   private final VirtualFile mySdkHome;
+  @Nullable
+  private final VirtualFile myReferenceDirectory;
   private final boolean mySupportsInternalPackages;
   private final boolean mySupportsSdkInternalPackages;
   private final boolean myVendoringEnabled;
+  private final boolean myReferenceIsInSdk;
+  // YES: any file of the directory could be referenced, UNSURE: depends on the file, NO: the directory is unreachable
+  private final Map<VirtualFile, ThreeState> myDirectories = ContainerUtil.newConcurrentMap();
 
   public static GoPathScopeHelper fromReferenceFile(@NotNull Project project,
                                                     @Nullable Module module,
                                                     @Nullable VirtualFile referenceFile) {
+    boolean vendoringEnabled = GoVendoringUtil.isVendoringEnabled(module);
+    VirtualFile referenceDirectory = referenceFile != null ? referenceFile.getParent() : null;
+    Map<Trinity<Module, VirtualFile, Boolean>, GoPathScopeHelper> helpers = CachedValuesManager.getManager(project).getCachedValue(
+      project, HELPERS_CACHE, () -> CachedValueProvider.Result.create(ContainerUtil.createConcurrentSoftValueMap(),
+                                                                      ProjectRootManager.getInstance(project),
+                                                                      VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS), false);
+    return helpers.computeIfAbsent(Trinity.create(module, referenceDirectory, vendoringEnabled),
+                                   key -> create(project, module, referenceFile, vendoringEnabled));
+  }
+
+  @NotNull
+  private static GoPathScopeHelper create(@NotNull Project project,
+                                          @Nullable Module module,
+                                          @Nullable VirtualFile referenceFile,
+                                          boolean vendoringEnabled) {
     VirtualFile sdkHome = GoSdkUtil.getSdkSrcDir(project, module);
     String sdkVersion = GoSdkService.getInstance(project).getSdkVersion(module);
     boolean supportsInternalPackages = GoVendoringUtil.supportsInternalPackages(sdkVersion);
     boolean supportsSdkInternalPackages = GoVendoringUtil.supportsSdkInternalPackages(sdkVersion);
-    boolean vendoringEnabled = GoVendoringUtil.isVendoringEnabled(module);
     Set<VirtualFile> sourceRoots = vendoringEnabled ? GoSdkUtil.getVendoringAwareSourcesPathsToLookup(project, module, referenceFile)
                                                     : GoSdkUtil.getSourcesPathsToLookup(project, module);
-    return new GoPathScopeHelper(sourceRoots, sdkHome, supportsInternalPackages, supportsSdkInternalPackages, vendoringEnabled);
+    VirtualFile referenceDirectory = referenceFile != null ? referenceFile.getParent() : null;
+    return new GoPathScopeHelper(sourceRoots, sdkHome, referenceDirectory, supportsInternalPackages, supportsSdkInternalPackages,
+                                 vendoringEnabled);
   }
 
   private GoPathScopeHelper(@NotNull Set<VirtualFile> roots,
                             @Nullable VirtualFile sdkHome,
+                            @Nullable VirtualFile referenceDirectory,
                             boolean supportsInternalPackages,
                             boolean supportsSdkInternalPackages,
                             boolean vendoringEnabled) {
     myRoots = roots;
     mySdkHome = sdkHome;
+    myReferenceDirectory = referenceDirectory;
     mySupportsInternalPackages = supportsInternalPackages;
     mySupportsSdkInternalPackages = supportsSdkInternalPackages;
     myVendoringEnabled = vendoringEnabled;
+    myReferenceIsInSdk = isInSdk(referenceDirectory);
   }
 
   public boolean couldBeReferenced(@NotNull VirtualFile declarationFile, @Nullable VirtualFile referenceFile) {
@@ -71,41 +116,55 @@ public class GoPathScopeHelper {
     if (declarationDirectory == null) {
       return true;
     }
+    VirtualFile referenceDirectory = referenceFile != null ? referenceFile.getParent() : null;
+    ThreeState verdict = Comparing.equal(referenceDirectory, myReferenceDirectory)
+                         ? myDirectories.computeIfAbsent(declarationDirectory,
+                                                         dir -> computeVerdict(dir, referenceDirectory, myReferenceIsInSdk))
+                         : computeVerdict(declarationDirectory, referenceDirectory, isInSdk(referenceDirectory));
+    if (verdict != ThreeState.UNSURE) {
+      return verdict.toBoolean();
+    }
+    return GoPsiImplUtil.allowed(declarationFile, referenceFile);
+  }
 
+  @NotNull
+  private ThreeState computeVerdict(@NotNull VirtualFile declarationDirectory,
+                                    @Nullable VirtualFile referenceDirectory,
+                                    boolean referenceIsInSdk) {
     if (ApplicationManager.getApplication().isUnitTestMode() && myRoots.contains(declarationDirectory)) {
-      return true;
+      return ThreeState.YES;
     }
 
     String importPath = GoSdkUtil.getRelativePathToRoots(declarationDirectory, myRoots);
     if (importPath == null) {
-      return false;
+      return ThreeState.NO;
     }
     if (importPath.isEmpty()) {
-      return true;
+      return ThreeState.YES;
     }
 
-    VirtualFile referenceDirectory = referenceFile != null ? referenceFile.getParent() : null;
     if (referenceDirectory != null) {
       if (myVendoringEnabled && GoSdkUtil.isUnreachableVendoredPackage(declarationDirectory, referenceDirectory, myRoots)) {
-        return false;
+        return ThreeState.NO;
       }
-      boolean declarationIsInSdk = mySdkHome != null && VfsUtilCore.isAncestor(mySdkHome, declarationDirectory, false);
+      boolean declarationIsInSdk = isInSdk(declarationDirectory);
       if (mySupportsInternalPackages || mySupportsSdkInternalPackages && declarationIsInSdk) {
         if (GoSdkUtil.isUnreachableInternalPackage(declarationDirectory, referenceDirectory, myRoots)) {
-          return false;
+          return ThreeState.NO;
         }
       }
       if (declarationIsInSdk && GoSdkUtil.findParentDirectory(declarationDirectory, myRoots, GoConstants.TESTDATA_NAME) != null) {
-        return false;
+        return ThreeState.NO;
       }
-      else {
-        boolean referenceIsInSdk = mySdkHome != null && VfsUtilCore.isAncestor(mySdkHome, referenceDirectory, false);
-        if (referenceIsInSdk) {
-          return false;
-        }
+      else if (referenceIsInSdk) {
+        return ThreeState.NO;
       }
     }
-    return GoPsiImplUtil.allowed(declarationFile, referenceFile) && !isShadowedImportPath(declarationDirectory, importPath, myRoots);
+    return isShadowedImportPath(declarationDirectory, importPath, myRoots) ? ThreeState.NO : ThreeState.UNSURE;
+  }
+
+  private boolean isInSdk(@Nullable VirtualFile directory) {
+    return mySdkHome != null && directory != null && VfsUtilCore.isAncestor(mySdkHome, directory, false);
   }
 
   private static boolean isShadowedImportPath(@NotNull VirtualFile targetDirectory,
@@ -16,10 +16,13 @@
 
 package com.goide.util;
 
+import com.goide.GoConstants;
 import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
 import com.goide.sdk.GoSdkService;
+import com.goide.sdk.GoSdkUtil;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.util.ArrayUtil;
@@ -29,11 +32,13 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Set;
 
 public class GoTargetSystem {
   private static final String GAE_BUILD_FLAG = "appengine";
+  private static final String CGO_BUILD_FLAG = "cgo";
 
   @NotNull public final String os;
   @NotNull public final String arch;
@@ -43,6 +48,10 @@ public class GoTargetSystem {
   @NotNull public final ThreeState cgoEnabled;
   private final Set<String> customFlags = ContainerUtil.newHashSet();
 
+  private final int myArchTag;
+  private final BitSet myOsTags = new BitSet();
+  private final BitSet myTags = new BitSet();
+
   public GoTargetSystem(@NotNull String os, @NotNull String arch, @Nullable String goVersion, @Nullable String compiler,
                         @NotNull ThreeState cgoEnabled, @NotNull String... customFlags) {
     this.os = os;
@@ -51,6 +60,48 @@ public class GoTargetSystem {
     this.compiler = compiler;
     this.cgoEnabled = cgoEnabled;
     Collections.addAll(this.customFlags, customFlags);
+
+    myArchTag = GoBuildConstraints.getTagId(arch);
+    myOsTags.set(GoBuildConstraints.getTagId(os));
+    myOsTags.set(myArchTag);
+    if (GoConstants.ANDROID_OS.equals(os)) {
+      myOsTags.set(GoBuildConstraints.getTagId(GoConstants.LINUX_OS));
+    }
+    myTags.or(myOsTags);
+    for (String name : GoConstants.KNOWN_COMPILERS) {
+      if (compiler == null || name.equals(compiler)) {
+        myTags.set(GoBuildConstraints.getTagId(name));
+      }
+    }
+    for (String name : GoConstants.KNOWN_VERSIONS) {
+      if (goVersion == null || GoSdkUtil.compareVersions(goVersion, StringUtil.trimStart(name, "go")) >= 0) {
+        myTags.set(GoBuildConstraints.getTagId(name));
+      }
+    }
+    if (cgoEnabled == ThreeState.YES) {
+      myTags.set(GoBuildConstraints.getTagId(CGO_BUILD_FLAG));
+    }
+    for (String flag : this.customFlags) {
+      // compiler, version and cgo tags are decided by the target only
+      if (!GoConstants.KNOWN_COMPILERS.contains(flag) && !GoConstants.KNOWN_VERSIONS.contains(flag) && !CGO_BUILD_FLAG.equals(flag)) {
+        myTags.set(GoBuildConstraints.getTagId(flag));
+      }
+    }
+  }
+
+  int getArchTag() {
+    return myArchTag;
+  }
+
+  /**
+   * @return whether an {@code _os} file name suffix or an OS build tag with the given id matches the target
+   */
+  boolean matchesOsTag(int tag) {
+    return myOsTags.get(tag);
+  }
+
+  boolean hasTag(int tag) {
+    return myTags.get(tag);
   }
 
   public boolean supportsFlag(@NotNull String flag) {
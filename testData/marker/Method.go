@@ -0,0 +1,9 @@
+package main
+
+type T struct{}
+
+func (t *T) walk(depth int) {
+	if depth > 0 {
+		t.walk(depth - 1)<caret>
+	}
+}
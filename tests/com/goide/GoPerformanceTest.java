@@ -18,32 +18,66 @@ package com.goide;
 
 import com.goide.categories.Performance;
 import com.goide.completion.GoCompletionUtil;
+import com.goide.dlv.DlvCommandProcessor;
+import com.goide.dlv.JsonReaderEx;
+import com.goide.dlv.protocol.DlvResponse;
 import com.goide.inspections.GoUnusedImportInspection;
 import com.goide.inspections.unresolved.*;
+import com.goide.marker.GoRecursiveCallMarkerProvider;
 import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
+import com.goide.psi.GoBlock;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionDeclaration;
+import com.goide.psi.GoTypeSpec;
+import com.goide.psi.impl.GoCodeBlockModificationTracker;
+import com.goide.psi.impl.GoImplementations;
+import com.goide.runconfig.testing.coverage.GoCoverageProjectData;
+import com.goide.runconfig.testing.coverage.GoCoverageRunner;
+import com.goide.sdk.GoEnvironmentGoPathModificationTracker;
+import com.goide.stubs.index.GoIdFilterService;
 import com.intellij.analysis.AnalysisScope;
 import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
 import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.InspectionProfileEntry;
 import com.intellij.codeInspection.ex.InspectionManagerEx;
 import com.intellij.codeInspection.ex.InspectionToolRegistrar;
 import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.openapi.util.io.BufferExposingByteArrayOutputStream;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.openapi.vfs.VirtualFileWithId;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.SyntaxTraverser;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.Stub;
+import com.intellij.psi.stubs.StubElement;
 import com.intellij.testFramework.InspectionTestUtil;
+import com.intellij.testFramework.LightVirtualFile;
 import com.intellij.testFramework.PlatformTestUtil;
 import com.intellij.testFramework.fixtures.impl.CodeInsightTestFixtureImpl;
 import com.intellij.testFramework.fixtures.impl.GlobalInspectionContextForTests;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.experimental.categories.Category;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Category(Performance.class)
@@ -181,6 +215,294 @@ public class GoPerformanceTest extends GoCodeInsightFixtureTestCase {
     }).usesAllCPUCores().assertTiming();
   }
 
+  public void testLazyFunctionBodies() {
+    String text = generateFunctions(2000, -1);
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(2), () -> {
+      GoFile file = (GoFile)PsiFileFactory.getInstance(getProject()).createFileFromText("a.go", GoFileType.INSTANCE, text);
+      List<GoFunctionDeclaration> functions = file.getFunctions();
+      assertSize(2000, functions);
+      GoBlock block = functions.get(1000).getBlock();
+      assertNotNull(block);
+      assertFalse(((LazyParseableElement)block.getNode()).isParsed());
+    }).cpuBound().assertTiming();
+  }
+
+  public void testTypingInsideFunctionBody() {
+    myFixture.configureByText(GoFileType.INSTANCE, generateFunctions(2000, 1000));
+    PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(5), () -> {
+      for (int i = 0; i < 50; i++) {
+        myFixture.type('x');
+        documentManager.commitAllDocuments();
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  public void testHighlightingAfterTypingInsideFunctionBody() {
+    myFixture.configureByText(GoFileType.INSTANCE, generateFunctions(1000, 500));
+    myFixture.enableInspections(GoUnresolvedReferenceInspection.class, GoUnusedVariableInspection.class);
+    myFixture.doHighlighting();
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(10), () -> {
+      for (int i = 0; i < 20; i++) {
+        myFixture.type("_ = b\n");
+        myFixture.doHighlighting();
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  public void testRecursiveCallMarkers() {
+    StringBuilder text = new StringBuilder("package main\n\ntype S struct{}\n\nfunc helper(a int) int { return a }\n\n");
+    for (int i = 0; i < 300; i++) {
+      text.append("func (s S) handle").append(i).append("(a int) int {\n");
+      for (int j = 0; j < 20; j++) {
+        text.append("  a = helper(a) + s.handle").append((i + j + 1) % 300).append("(a)\n");
+      }
+      text.append("  return s.handle").append(i).append("(a)\n}\n\n");
+    }
+    PsiFile file = myFixture.configureByText(GoFileType.INSTANCE, text.toString());
+    List<PsiElement> elements = SyntaxTraverser.psiTraverser(file).toList();
+    GoRecursiveCallMarkerProvider provider = new GoRecursiveCallMarkerProvider();
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(5), () -> {
+      for (int i = 0; i < 5; i++) {
+        GoCodeBlockModificationTracker.getInstance(getProject()).incOutOfBlockModificationCount();
+        List<LineMarkerInfo> markers = ContainerUtil.newArrayList();
+        provider.collectSlowLineMarkers(elements, markers);
+        assertSize(300, markers);
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  @NotNull
+  private static String generateFunctions(int count, int caretFunction) {
+    StringBuilder text = new StringBuilder("package main\n\n");
+    for (int i = 0; i < count; i++) {
+      text.append("func f").append(i).append("(a int) int {\n")
+        .append("  b := a + ").append(i).append("\n")
+        .append("  if b > 10 {\n")
+        .append("    b = b * 2\n")
+        .append("  }\n")
+        .append(i == caretFunction ? "  <caret>\n" : "\n")
+        .append("  for j := 0; j < b; j++ {\n")
+        .append("    b += j\n")
+        .append("  }\n")
+        .append("  return b\n")
+        .append("}\n\n");
+    }
+    return text.toString();
+  }
+
+  public void testStubDeserializationAndPsiCreation() throws IOException {
+    File go = new File(getTestDataPath(), "go");
+    if (!go.exists()) {
+      System.err.println(
+        "For performance tests you need to have a go sources (https://storage.googleapis.com/golang/go1.4.2.src.tar.gz) inside testData/" +
+        getBasePath() +
+        " directory");
+      return;
+    }
+
+    VirtualFile root = LocalFileSystem.getInstance().findFileByIoFile(go);
+    assertNotNull(root);
+    SerializationManagerEx serializationManager = SerializationManagerEx.getInstanceEx();
+    List<byte[]> serializedStubs = ContainerUtil.newArrayList();
+    for (VirtualFile file : VfsUtil.collectChildrenRecursively(root)) {
+      if (file.getFileType() != GoFileType.INSTANCE || file.getPath().contains("/testdata/")) continue;
+      String text = FileUtil.loadFile(new File(file.getPath()), "UTF-8", true);
+      PsiFile psi = PsiFileFactory.getInstance(getProject()).createFileFromText(file.getName(), GoFileType.INSTANCE, text);
+      BufferExposingByteArrayOutputStream out = new BufferExposingByteArrayOutputStream();
+      serializationManager.serialize(GoFileElementType.INSTANCE.getBuilder().buildStubTree(psi), out);
+      serializedStubs.add(out.toByteArray());
+    }
+
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(20), () -> {
+      for (byte[] bytes : serializedStubs) {
+        Stub stub = serializationManager.deserialize(new ByteArrayInputStream(bytes));
+        createPsiRecursively(stub);
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  private static void createPsiRecursively(@NotNull Stub stub) {
+    for (Stub child : stub.getChildrenStubs()) {
+      if (child instanceof StubElement && child.getStubType() instanceof IStubElementType) {
+        //noinspection unchecked
+        assertNotNull(((IStubElementType)child.getStubType()).createPsi((StubElement)child));
+      }
+      createPsiRecursively(child);
+    }
+  }
+
+  public void testInterfaceImplementationsSearch() {
+    VirtualFile go = installTestData("go");
+    if (go == null) return;
+    VirtualFile io = go.findFileByRelativePath("src/io/io.go");
+    assertNotNull(io);
+    GoFile file = (GoFile)getPsiManager().findFile(io);
+    assertNotNull(file);
+    List<GoTypeSpec> interfaces = ContainerUtil.filter(file.getTypes(), GoImplementations::isInterface);
+    GlobalSearchScope scope = GlobalSearchScope.projectScope(getProject());
+
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(20), () -> {
+      int count = 0;
+      for (GoTypeSpec iface : interfaces) {
+        CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+        GoImplementations.processImplementations(iface, scope, processor);
+        count += processor.getResults().size();
+      }
+      assertTrue(count > 0);
+    }).cpuBound().assertTiming();
+  }
+
+  public void testCoverageProfileParsing() throws IOException {
+    // 8 million blocks, a profile of about 300MB
+    int filesCount = 400;
+    int blocksPerFile = 20000;
+    for (int i = 0; i < filesCount; i++) {
+      myFixture.getTempDirFixture().createFile("perf/file" + i + ".go", "package perf");
+    }
+    File profile = FileUtil.createTempFile("coverage", ".out", true);
+    try (Writer writer = new BufferedWriter(new FileWriter(profile))) {
+      writer.write("mode: count\n");
+      for (int i = 0; i < filesCount; i++) {
+        for (int block = 1; block <= blocksPerFile; block++) {
+          writer.write("perf/file" + i + ".go:" + block + ".2," + (block + 1) + ".14 " + (block % 3 + 1) + " " + block % 5 + "\n");
+        }
+      }
+    }
+
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(100), () -> {
+      try (BufferedReader reader = new BufferedReader(new FileReader(profile))) {
+        assertNotNull(GoCoverageRunner.parseCoverage(reader, getProject(), myFixture.getModule()));
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  public void testCoverageDataMerging() {
+    int profilesCount = 100;
+    int blocksPerFile = 20000;
+    List<GoCoverageProjectData> profiles = ContainerUtil.newArrayList();
+    for (int i = 0; i < profilesCount; i++) {
+      GoCoverageProjectData.Builder builder = new GoCoverageProjectData.Builder();
+      for (int file = 0; file < 10; file++) {
+        for (int block = blocksPerFile; block > 0; block--) {
+          builder.addData("file" + file + ".go", block, 2, block + 1, 14, block % 3 + 1, (block + i) % 5);
+        }
+      }
+      profiles.add(builder.build());
+    }
+
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(10), () -> {
+      GoCoverageProjectData result = new GoCoverageProjectData();
+      for (GoCoverageProjectData profile : profiles) {
+        result.merge(profile);
+      }
+      GoCoverageProjectData.FileData fileData = result.getFileData("file0.go");
+      assertNotNull(fileData);
+      assertEquals(blocksPerFile, fileData.getRangesCount());
+    }).cpuBound().assertTiming();
+  }
+
+  public void testDelveResponseDecoding() {
+    StringBuilder locations = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      if (i > 0) locations.append(',');
+      locations.append("{\"pc\":").append(4198400 + i).append(",\"file\":\"/src/main/file").append(i)
+        .append(".go\",\"line\":").append(i + 1).append(",\"function\":{\"name\":\"main.f").append(i)
+        .append("\",\"value\":").append(i).append(",\"type\":0,\"goclass\":0,\"args\":null,\"locals\":null}}");
+    }
+    StringBuilder variables = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      if (i > 0) variables.append(',');
+      variables.append("{\"name\":\"v").append(i).append("\",\"type\":\"[]int\",\"addr\":").append(842350559232L + i)
+        .append(",\"kind\":23,\"value\":\"\",\"len\":10,\"cap\":10,\"children\":[");
+      for (int j = 0; j < 10; j++) {
+        if (j > 0) variables.append(',');
+        variables.append("{\"name\":\"\",\"type\":\"int\",\"addr\":0,\"kind\":2,\"value\":\"").append(j)
+          .append("\",\"len\":0,\"cap\":0,\"children\":[],\"unreadable\":\"\"}");
+      }
+      variables.append("],\"unreadable\":\"\"}");
+    }
+    Map<String, String> responses = ContainerUtil.newLinkedHashMap();
+    responses.put("RPCServer.StacktraceGoroutine", "{\"id\":1,\"result\":[" + locations + "],\"error\":null}");
+    responses.put("RPCServer.ListLocalVars", "{\"id\":2,\"result\":[" + variables + "],\"error\":null}");
+    responses.put("RPCServer.Command", "{\"id\":3,\"result\":{\"currentThread\":{\"id\":1,\"pc\":4198400,\"file\":\"/src/main/main.go\"," +
+                                       "\"line\":5},\"exited\":false,\"exitStatus\":0},\"error\":null}");
+
+    PlatformTestUtil.startPerformanceTest(getTestName(true), 5000, () -> {
+      for (int i = 0; i < 1000; i++) {
+        for (Map.Entry<String, String> entry : responses.entrySet()) {
+          DlvResponse response = new DlvResponse.CommandResponseImpl(new JsonReaderEx(entry.getValue()), null);
+          JsonReaderEx result = response.result();
+          assertNotNull(result);
+          assertNotNull(DlvCommandProcessor.decodeResult(entry.getKey(), result));
+        }
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  public void testGoPathTrackerOnLargeEventsBatch() throws IOException {
+    VirtualFile goPath = myFixture.getTempDirFixture().findOrCreateDir("home/go");
+    VirtualFile file = myFixture.getTempDirFixture().createFile("home/project/main.go");
+    List<VirtualFile> directories = ContainerUtil.newArrayList();
+    for (int i = 0; i < 100; i++) {
+      directories.add(myFixture.getTempDirFixture().findOrCreateDir("home/project/p" + i));
+    }
+    List<VFileEvent> events = ContainerUtil.newArrayList();
+    for (int i = 0; i < 100000; i++) {
+      VirtualFile directory = directories.get(i % directories.size());
+      switch (i % 4) {
+        case 0:
+          events.add(new VFileDeleteEvent(this, directory, true));
+          break;
+        case 1:
+          events.add(new VFilePropertyChangeEvent(this, directory, VirtualFile.PROP_NAME, directory.getName(), "q" + i, true));
+          break;
+        case 2:
+          events.add(new VFileMoveEvent(this, directory, goPath.getParent()));
+          break;
+        default:
+          events.add(new VFileContentChangeEvent(this, file, i, i + 1, true));
+      }
+    }
+    GoEnvironmentGoPathModificationTracker tracker = GoEnvironmentGoPathModificationTracker.createForTests(ContainerUtil.list(goPath.getPath()));
+    PlatformTestUtil.startPerformanceTest(getTestName(true), 500, () -> assertFalse(tracker.handleEvents(events))).cpuBound().assertTiming();
+  }
+
+  public void testIdFilterConstruction() {
+    List<VirtualFile> files = ContainerUtil.newArrayList();
+    for (int i = 0; i < 500000; i++) {
+      files.add(new SyntheticFile("f" + i + (i % 5 == 0 ? "_test.go" : ".go"), i + 1));
+    }
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)TimeUnit.SECONDS.toMillis(2), () -> {
+      GoIdFilterService.FileIdSets sets = new GoIdFilterService.FileIdSets();
+      for (VirtualFile file : files) {
+        sets.add(file);
+      }
+      assertTrue(sets.getTestsFilter().containsFileId(1));
+      assertTrue(sets.getProductionFilter().containsFileId(2));
+      // incremental updates touch only the affected files
+      for (int i = 0; i < 10000; i++) {
+        VirtualFile file = files.get(i * 50);
+        sets.remove(file);
+        sets.add(file);
+      }
+    }).cpuBound().assertTiming();
+  }
+
+  private static class SyntheticFile extends LightVirtualFile implements VirtualFileWithId {
+    private final int myId;
+
+    SyntheticFile(@NotNull String name, int id) {
+      super(name);
+      myId = id;
+    }
+
+    @Override
+    public int getId() {
+      return myId;
+    }
+  }
+
   @NotNull
   @Override
   protected String getBasePath() {
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.completion;
+
+import com.intellij.openapi.project.DumbServiceImpl;
+
+public class GoDumbModeCompletionTest extends GoCompletionTestBase {
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    DumbServiceImpl.getInstance(getProject()).setDumb(true);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    try {
+      DumbServiceImpl.getInstance(getProject()).setDumb(false);
+    }
+    finally {
+      super.tearDown();
+    }
+  }
+
+  public void testLocalVariables() {
+    doTestInclude("package main; func main() { var fooBar int; fooB<caret> }", "fooBar");
+  }
+
+  public void testFileLocalFields() {
+    doTestInclude("package main; type T struct { fooBar int }; func main() { t := T{}; t.<caret> }", "fooBar");
+  }
+
+  public void testFileLocalMethods() {
+    doTestInclude("package main; type T int; func (T) fooBar() {}; func main() { t := T(1); t.<caret> }", "fooBar");
+  }
+
+  public void testOtherFilesOfPackageAreSkipped() {
+    myFixture.addFileToProject("b.go", "package main; func fooBaz() {}");
+    doTestExclude("package main; func fooBar() {}; func fooBaq() {}; func main() { fooB<caret> }", "fooBaz");
+  }
+}
@@ -27,6 +27,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
 
 public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
   public void testCoverage() throws IOException {
@@ -73,6 +74,19 @@ public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
     assertEquals("80% statements", mergeAnnotator.getFileCoverageInformationString(file));
   }
 
+  public void testLargeHitCounts() throws IOException {
+    VirtualFile file = myFixture.getTempDirFixture().createFile("coverage.go");
+    String profile = "mode: count\n" +
+                     "coverage.go:20.56,21.14 1 2147483647\n" +
+                     "coverage.go:24.2,24.50 1 2147483648\n";
+    GoCoverageProjectData data = GoCoverageRunner.parseCoverage(new BufferedReader(new StringReader(profile)), getProject(), myModule);
+    assertNotNull(data);
+    GoCoverageProjectData.FileData fileData = data.getFileData(file.getPath());
+    assertNotNull(fileData);
+    assertEquals(1, fileData.getRangesCount());
+    assertEquals(Integer.MAX_VALUE, fileData.getHits(0));
+  }
+
   private GoCoverageAnnotator annotate() throws IOException {
     return annotate(file());
   }
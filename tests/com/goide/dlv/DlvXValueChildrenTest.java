@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.dlv;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.dlv.protocol.DlvApi;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.xdebugger.frame.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jsonProtocol.Request;
+
+import javax.swing.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class DlvXValueChildrenTest extends GoCodeInsightFixtureTestCase {
+  // reflect.Kind values
+  private static final int INT = 2;
+  private static final int MAP = 21;
+  private static final int SLICE = 23;
+  // default of go.debugger.load.max.children, the MaxArrayValues of the load config
+  private static final int LOAD_LIMIT = 64;
+
+  public void testSlicePaging() {
+    MockDlvServer server = new MockDlvServer(SLICE, 200);
+    List<String> expressions = ContainerUtil.newArrayList();
+    DlvXValueChildren children = new DlvXValueChildren(server.eval(0), server, 1, "s", (child, expression) -> {
+      expressions.add(expression);
+      return value();
+    });
+    assertTrue(children.hasChildren());
+    MockNode node = new MockNode();
+
+    children.computeChildren(node);
+    node.assertPage(64, false, 136);
+    children.computeChildren(node);
+    node.assertPage(64, false, 72);
+    children.computeChildren(node);
+    node.assertPage(64, false, 8);
+    children.computeChildren(node);
+    node.assertPage(8, true, -1);
+
+    assertEquals(Arrays.asList("(s)[64:]", "(s)[128:]", "(s)[192:]"), server.mySymbols);
+    assertSize(200, expressions);
+    assertEquals("(s)[0]", expressions.get(0));
+    assertEquals("(s)[130]", expressions.get(130));
+    assertEquals("(s)[199]", expressions.get(199));
+  }
+
+  public void testMapPaging() {
+    MockDlvServer server = new MockDlvServer(MAP, 100);
+    DlvXValueChildren children = new DlvXValueChildren(server.eval(0), server, 1, "m", (child, expression) -> {
+      assertNull(expression);
+      return value();
+    });
+    MockNode node = new MockNode();
+
+    children.computeChildren(node);
+    node.assertPage(2 * 64, false, 36);
+    children.computeChildren(node);
+    node.assertPage(2 * 36, true, -1);
+
+    assertEquals(Collections.singletonList("(m)[64:]"), server.mySymbols);
+  }
+
+  public void testSinglePage() {
+    MockDlvServer server = new MockDlvServer(SLICE, LOAD_LIMIT);
+    DlvXValueChildren children = new DlvXValueChildren(server.eval(0), server, 1, "s", (child, expression) -> value());
+    MockNode node = new MockNode();
+
+    children.computeChildren(node);
+    node.assertPage(64, true, -1);
+    assertEmpty(server.mySymbols);
+  }
+
+  public void testUnaddressableValueIsNotPaged() {
+    MockDlvServer server = new MockDlvServer(SLICE, 200);
+    DlvXValueChildren children = new DlvXValueChildren(server.eval(0), server, 1, null, (child, expression) -> value());
+    MockNode node = new MockNode();
+
+    children.computeChildren(node);
+    node.assertPage(64, true, -1);
+    assertEmpty(server.mySymbols);
+  }
+
+  @NotNull
+  private static XValue value() {
+    return new XValue() {
+      @Override
+      public void computePresentation(@NotNull XValueNode node, @NotNull XValuePlace place) {
+      }
+    };
+  }
+
+  /**
+   * Answers EvalSymbol requests reslicing a single value like delve does with the default load config
+   */
+  private static class MockDlvServer extends DlvCommandProcessor {
+    private static final Pattern RESLICE = Pattern.compile("\\(\\w+\\)\\[(\\d+):]");
+
+    private final int myKind;
+    private final int myLength;
+    private final List<String> mySymbols = ContainerUtil.newArrayList();
+
+    private MockDlvServer(int kind, int length) {
+      myKind = kind;
+      myLength = length;
+    }
+
+    @Override
+    public boolean write(@NotNull Request message) {
+      JsonObject request = new JsonParser().parse(message.getBuffer().toString(StandardCharsets.UTF_8)).getAsJsonObject();
+      String symbol = request.getAsJsonArray("params").get(0).getAsJsonObject().get("Symbol").getAsString();
+      mySymbols.add(symbol);
+      Matcher matcher = RESLICE.matcher(symbol);
+      assertTrue(symbol, matcher.matches());
+      JsonObject response = new JsonObject();
+      response.add("id", request.get("id"));
+      response.add("result", new Gson().toJsonTree(eval(Integer.parseInt(matcher.group(1)))));
+      processIncomingJson(new JsonReaderEx(response.toString()));
+      return true;
+    }
+
+    @NotNull
+    private DlvApi.Variable eval(int offset) {
+      DlvApi.Variable variable = new DlvApi.Variable();
+      variable.kind = myKind;
+      variable.len = myLength - offset;
+      List<DlvApi.Variable> children = ContainerUtil.newArrayList();
+      for (int i = offset; i < Math.min(offset + LOAD_LIMIT, myLength); i++) {
+        if (myKind == MAP) {
+          children.add(intVariable("", i));
+        }
+        children.add(intVariable(myKind == MAP ? "" : "[" + i + "]", i));
+      }
+      variable.children = children.toArray(new DlvApi.Variable[children.size()]);
+      return variable;
+    }
+
+    @NotNull
+    private static DlvApi.Variable intVariable(@NotNull String name, int value) {
+      DlvApi.Variable variable = new DlvApi.Variable();
+      variable.name = name;
+      variable.kind = INT;
+      variable.value = String.valueOf(value);
+      variable.children = new DlvApi.Variable[0];
+      return variable;
+    }
+  }
+
+  private static class MockNode implements XCompositeNode {
+    private int myChildrenCount = -1;
+    private boolean myLast;
+    private int myRemaining = -1;
+
+    @Override
+    public void addChildren(@NotNull XValueChildrenList children, boolean last) {
+      assertEquals("previous page wasn't checked", -1, myChildrenCount);
+      myChildrenCount = children.size();
+      myLast = last;
+    }
+
+    @Override
+    public void tooManyChildren(int remaining) {
+      assertFalse("no elements remain after the last page", myLast);
+      myRemaining = remaining;
+    }
+
+    @Override
+    public void setAlreadySorted(boolean alreadySorted) {
+    }
+
+    @Override
+    public void setErrorMessage(@NotNull String errorMessage) {
+      fail(errorMessage);
+    }
+
+    @Override
+    public void setErrorMessage(@NotNull String errorMessage, @Nullable XDebuggerTreeNodeHyperlink link) {
+      fail(errorMessage);
+    }
+
+    @Override
+    public void setMessage(@NotNull String message,
+                           @Nullable Icon icon,
+                           @NotNull SimpleTextAttributes attributes,
+                           @Nullable XDebuggerTreeNodeHyperlink link) {
+      fail(message);
+    }
+
+    @Override
+    public boolean isObsolete() {
+      return false;
+    }
+
+    private void assertPage(int childrenCount, boolean last, int remaining) {
+      assertEquals(childrenCount, myChildrenCount);
+      assertEquals(last, myLast);
+      assertEquals(remaining, myRemaining);
+      myChildrenCount = -1;
+      myLast = false;
+      myRemaining = -1;
+    }
+  }
+}
@@ -28,6 +28,7 @@ import java.util.List;
 public class GoRecursiveMethodCallMarkerInfoTest extends GoCodeInsightFixtureTestCase {
   public void testRecursive() { doTest(); }
   public void testGo()        { doTest(); }
+  public void testMethod()    { doTest(); }
 
   @NotNull
   @Override
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.SdkAware;
+import com.goide.psi.*;
+import com.intellij.psi.PsiElement;
+
+@SdkAware
+public class GoBuiltinUniverseTest extends GoCodeInsightFixtureTestCase {
+  public void testLookup() {
+    GoBuiltinUniverse universe = universe();
+    assertNotNull(universe.find("len", GoFunctionDeclaration.class));
+    assertNotNull(universe.find("error", GoTypeSpec.class));
+    assertNotNull(universe.find("nil", GoVarDefinition.class));
+    assertNotNull(universe.find("true", GoConstDefinition.class));
+    assertNull(universe.find("len", GoTypeSpec.class));
+    assertEmpty(universe.getDeclarations("undefined"));
+  }
+
+  public void testSharedByFilesOfProject() {
+    GoBuiltinUniverse universe = universe();
+    myFixture.configureByText("b.go", "package b");
+    assertSame(universe, GoBuiltinUniverse.getInstance(myFixture.getFile()));
+  }
+
+  public void testResolveThroughUniverse() {
+    myFixture.configureByText("a.go", "package a; func _() { _ = le<caret>n(\"\") }");
+    PsiElement resolved = myFixture.getElementAtCaret();
+    assertSame(universe().find("len", GoFunctionDeclaration.class), resolved);
+  }
+
+  private GoBuiltinUniverse universe() {
+    myFixture.configureByText("a.go", "package a");
+    GoBuiltinUniverse universe = GoBuiltinUniverse.getInstance(myFixture.getFile());
+    assertNotNull(universe);
+    return universe;
+  }
+}
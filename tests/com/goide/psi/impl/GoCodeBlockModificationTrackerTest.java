@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.SdkAware;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionDeclaration;
+import com.goide.psi.GoMethodDeclaration;
+import com.goide.psi.GoReferenceExpression;
+import com.goide.psi.GoType;
+import com.goide.psi.GoVarDefinition;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.ResolveResult;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+
+@SdkAware
+@SuppressWarnings("ConstantConditions")
+public class GoCodeBlockModificationTrackerTest extends GoCodeInsightFixtureTestCase {
+  private static final String TEXT = "package main\n\n" +
+                                     "func a() {\n  x := 1\n  <caret>\n  _ = x\n}\n\n" +
+                                     "func b() {\n  y := 2\n  _ = y\n}\n";
+
+  public void testTypingInsideBody() {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", TEXT);
+    ModificationTracker a = GoCodeBlockModificationTracker.getBodyTracker(file.getFunctions().get(0));
+    ModificationTracker b = GoCodeBlockModificationTracker.getBodyTracker(file.getFunctions().get(1));
+    ModificationTracker outOfBlock = GoCodeBlockModificationTracker.getInstance(getProject()).getOutOfBlockTracker();
+    long aCount = a.getModificationCount();
+    long bCount = b.getModificationCount();
+    long outOfBlockCount = outOfBlock.getModificationCount();
+
+    type("z := x\n");
+    assertTrue(aCount < a.getModificationCount());
+    assertEquals(bCount, b.getModificationCount());
+    assertEquals(outOfBlockCount, outOfBlock.getModificationCount());
+  }
+
+  public void testChangingSignature() {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", TEXT.replace("func a() {", "func a(<caret>) {").replace("  <caret>\n", ""));
+    ModificationTracker outOfBlock = GoCodeBlockModificationTracker.getInstance(getProject()).getOutOfBlockTracker();
+    long count = outOfBlock.getModificationCount();
+    type("p int");
+    assertTrue(count < outOfBlock.getModificationCount());
+    assertSize(2, file.getFunctions());
+  }
+
+  public void testTypesInOtherBodiesSurviveTyping() {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", TEXT);
+    GoFunctionDeclaration b = file.getFunctions().get(1);
+    GoVarDefinition y = PsiTreeUtil.findChildOfType(b.getBlock(), GoVarDefinition.class);
+    GoType type = y.getGoType(null);
+    assertNotNull(type);
+
+    type("z := x\n");
+    assertSame(type, y.getGoType(null));
+  }
+
+  public void testResolveResultsInOtherBodiesSurviveTyping() {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", TEXT);
+    GoReferenceExpression y = ContainerUtil.find(PsiTreeUtil.findChildrenOfType(file.getFunctions().get(1).getBlock(),
+                                                                               GoReferenceExpression.class), e -> e.textMatches("y"));
+    ResolveResult[] results = y.getReference().multiResolve(false);
+    assertSize(1, results);
+
+    type("z := x\n");
+    assertSame(results, y.getReference().multiResolve(false));
+  }
+
+  public void testSelectorResultsInOtherBodiesSurviveTyping() {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", "package main\n\n" +
+                                                             "type T struct { f int }\n\n" +
+                                                             "func (t T) m() int { return t.f }\n\n" +
+                                                             "func a() {\n  x := T{}\n  <caret>\n  _ = x\n}\n\n" +
+                                                             "func b() int {\n  y := T{}\n  return y.m()\n}\n");
+    GoReferenceExpression m = ContainerUtil.find(PsiTreeUtil.findChildrenOfType(file.getFunctions().get(1).getBlock(),
+                                                                               GoReferenceExpression.class), e -> e.textMatches("y.m"));
+    ResolveResult[] results = m.getReference().multiResolve(false);
+    assertSize(1, results);
+    assertInstanceOf(results[0].getElement(), GoMethodDeclaration.class);
+
+    type("z := x\n");
+    assertSame(results, m.getReference().multiResolve(false));
+  }
+
+  private void type(String text) {
+    myFixture.type(text);
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+public class GoImplementationsTest extends GoCodeInsightFixtureTestCase {
+  public void testImplementations() {
+    GoFile file = configure("package a; type I interface { M(a, b int) error; N() }\n" +
+                            "type A struct{}; func (A) M(a int, b int) error { return nil }; func (A) N() {}\n" +
+                            "type B struct{}; func (*B) M(a, b int) error { return nil }; func (*B) N() {}\n" +
+                            "type C struct{}; func (C) M(a int) error { return nil }; func (C) N() {}\n" +
+                            "type D struct{}; func (D) M(a, b int) (int, error) { return 0, nil }; func (D) N() {}\n" +
+                            "type E struct{}; func (E) M(a, b int) error { return nil }");
+    assertSameElements(names(implementations(type(file, "I"))), "A", "B");
+  }
+
+  public void testImplementationThroughEmbedding() {
+    // N has fewer declarations than M, so candidates come from N and B gets M from the embedded field
+    GoFile file = configure("package a; type I interface { M(); N() }\n" +
+                            "type A struct{}; func (A) M() {}; type C struct{}; func (C) M() {}\n" +
+                            "type B struct { A }; func (B) N() {}");
+    assertSameElements(names(implementations(type(file, "I"))), "B");
+  }
+
+  public void testMayHaveImplementations() {
+    GoFile file = configure("package a; type I interface { M() }; type J interface { M(); N() }; type K interface {}\n" +
+                            "type A struct{}; func (A) M() {}; type B struct{}");
+    assertTrue(GoImplementations.mayHaveImplementations(type(file, "I"), scope()));
+    assertFalse(GoImplementations.mayHaveImplementations(type(file, "J"), scope()));
+    assertFalse(GoImplementations.mayHaveImplementations(type(file, "K"), scope()));
+    assertTrue(GoImplementations.mayHaveSuperInterfaces(type(file, "A"), scope()));
+    assertFalse(GoImplementations.mayHaveSuperInterfaces(type(file, "B"), scope()));
+  }
+
+  public void testSuperInterfaces() {
+    GoFile file = configure("package a; type I interface { M() }; type J interface { M(); N() }; type K interface { L() }\n" +
+                            "type A struct{}; func (A) M() {}; func (A) N() {}");
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+    GoImplementations.processSuperInterfaces(type(file, "A"), scope(), processor);
+    assertSameElements(names(processor.getResults()), "I", "J");
+  }
+
+  public void testImplementingAndSuperMethods() {
+    GoFile file = configure("package a; type I interface { M() }\n" +
+                            "type A struct{}; func (A) M() {}; type B struct{}; func (*B) M() {}");
+    GoMethodSpec method = ((GoInterfaceType)type(file, "I").getSpecType().getType()).getMethods().get(0);
+    CommonProcessors.CollectProcessor<GoMethodDeclaration> implementations = new CommonProcessors.CollectProcessor<>();
+    GoImplementations.processImplementingMethods(method, scope(), implementations);
+    assertSize(2, implementations.getResults());
+
+    GoMethodDeclaration declaration = ContainerUtil.getFirstItem(type(file, "A").getMethods());
+    assertNotNull(declaration);
+    CommonProcessors.CollectProcessor<GoMethodSpec> superMethods = new CommonProcessors.CollectProcessor<>();
+    GoImplementations.processSuperMethods(declaration, scope(), superMethods);
+    assertSameElements(superMethods.getResults(), method);
+  }
+
+  @NotNull
+  private GoFile configure(@NotNull String text) {
+    return (GoFile)myFixture.configureByText("a.go", text);
+  }
+
+  @NotNull
+  private GlobalSearchScope scope() {
+    return GlobalSearchScope.projectScope(getProject());
+  }
+
+  @NotNull
+  private static GoTypeSpec type(@NotNull GoFile file, @NotNull String name) {
+    GoTypeSpec spec = ContainerUtil.find(file.getTypes(), t -> name.equals(t.getName()));
+    assertNotNull(spec);
+    return spec;
+  }
+
+  @NotNull
+  private Collection<GoTypeSpec> implementations(@NotNull GoTypeSpec iface) {
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+    GoImplementations.processImplementations(iface, scope(), processor);
+    return processor.getResults();
+  }
+
+  @NotNull
+  private static List<String> names(@NotNull Collection<? extends GoNamedElement> elements) {
+    return ContainerUtil.map(elements, GoNamedElement::getName);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.*;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+public class GoMethodSetTest extends GoCodeInsightFixtureTestCase {
+  public void testValueAndPointerReceivers() {
+    GoMethodSet methodSet = methodSet("package a; type T struct{}; func (T) V() {}; func (*T) P() {}", "T");
+    assertSameElements(names(methodSet.getValueMethods()), "V");
+    assertSameElements(names(methodSet.getPointerMethods()), "V", "P");
+  }
+
+  public void testPromotedMethods() {
+    GoMethodSet methodSet = methodSet("package a; type E struct{}; func (E) V() {}; func (*E) P() {}\n" +
+                                      "type F struct{}; func (*F) Q() {}\n" +
+                                      "type T struct { E; *F }", "T");
+    assertSameElements(names(methodSet.getValueMethods()), "V", "Q");
+    assertSameElements(names(methodSet.getPointerMethods()), "V", "P", "Q");
+  }
+
+  public void testShallowerNameHidesPromotedMethod() {
+    GoMethodSet methodSet = methodSet("package a; type E struct{}; func (E) V() {}; func (E) W() {}\n" +
+                                      "type T struct { E; V int }; func (T) W() {}", "T");
+    assertSameElements(names(methodSet.getPointerMethods()), "W");
+    GoNamedElement w = methodSet.findValueMethod("W");
+    assertNotNull(w);
+    GoType receiverType = ((GoMethodDeclaration)w).getReceiverType();
+    assertNotNull(receiverType);
+    assertEquals("T", receiverType.getText());
+  }
+
+  public void testAmbiguousPromotedMethod() {
+    GoMethodSet methodSet = methodSet("package a; type A struct{}; func (A) M() {}; type B struct{}; func (B) M() {}\n" +
+                                      "type T struct { A; B }", "T");
+    assertEmpty(methodSet.getPointerMethods());
+  }
+
+  public void testInterface() {
+    GoMethodSet methodSet = methodSet("package a; type R interface { Read() }; type RW interface { R; Write() }", "RW");
+    assertSameElements(names(methodSet.getValueMethods()), "Read", "Write");
+    assertEmpty(methodSet.getPointerMethods());
+  }
+
+  @NotNull
+  private GoMethodSet methodSet(@NotNull String text, @NotNull String typeName) {
+    GoFile file = (GoFile)myFixture.configureByText("a.go", text);
+    GoTypeSpec spec = ContainerUtil.find(file.getTypes(), t -> typeName.equals(t.getName()));
+    assertNotNull(spec);
+    return GoMethodSet.forType(spec);
+  }
+
+  @NotNull
+  private static List<String> names(@NotNull Collection<GoNamedElement> elements) {
+    return ContainerUtil.map(elements, GoNamedElement::getName);
+  }
+}
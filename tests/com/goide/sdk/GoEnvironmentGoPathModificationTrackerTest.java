@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.sdk;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collections;
+
+public class GoEnvironmentGoPathModificationTrackerTest extends GoCodeInsightFixtureTestCase {
+  private VirtualFile myHome;
+  private VirtualFile myGoPath;
+  private GoEnvironmentGoPathModificationTracker myTracker;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myGoPath = myFixture.getTempDirFixture().findOrCreateDir("home/go");
+    myHome = myGoPath.getParent();
+    myTracker = GoEnvironmentGoPathModificationTracker.createForTests(Collections.singletonList(myGoPath.getPath()));
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    myHome = null;
+    myGoPath = null;
+    myTracker = null;
+    super.tearDown();
+  }
+
+  public void testDeletingGoPath() {
+    assertTrue(handle(new VFileDeleteEvent(this, myGoPath, false)));
+  }
+
+  public void testDeletingAncestorOfGoPath() {
+    assertTrue(handle(new VFileDeleteEvent(this, myHome, false)));
+  }
+
+  public void testDeletingUnrelatedDirectory() throws IOException {
+    VirtualFile other = myFixture.getTempDirFixture().findOrCreateDir("home/other");
+    assertFalse(handle(new VFileDeleteEvent(this, other, false)));
+  }
+
+  public void testDeletingDirectoryInsideGoPath() throws IOException {
+    VirtualFile src = myFixture.getTempDirFixture().findOrCreateDir("home/go/src");
+    assertFalse(handle(new VFileDeleteEvent(this, src, false)));
+  }
+
+  public void testDeletingDirectoryWithGoPathNameElsewhere() throws IOException {
+    VirtualFile go = myFixture.getTempDirFixture().findOrCreateDir("other/go");
+    assertFalse(handle(new VFileDeleteEvent(this, go, false)));
+  }
+
+  public void testRenamingGoPath() {
+    assertTrue(handle(new VFilePropertyChangeEvent(this, myGoPath, VirtualFile.PROP_NAME, "go", "go2", false)));
+  }
+
+  public void testRenamingToGoPath() throws IOException {
+    VirtualFile other = myFixture.getTempDirFixture().findOrCreateDir("home/other");
+    assertTrue(handle(new VFilePropertyChangeEvent(this, other, VirtualFile.PROP_NAME, "other", "go", false)));
+  }
+
+  public void testMovingGoPath() throws IOException {
+    VirtualFile other = myFixture.getTempDirFixture().findOrCreateDir("other");
+    assertTrue(handle(new VFileMoveEvent(this, myGoPath, other)));
+  }
+
+  private boolean handle(@NotNull VFileEvent event) {
+    return myTracker.handleEvents(Collections.singletonList(event));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.sdk;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+@SuppressWarnings("ConstantConditions")
+public class GoPackageModificationTrackerTest extends GoCodeInsightFixtureTestCase {
+  public void testEditingOtherPackage() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a; func A() {}");
+    PsiFile b = myFixture.addFileToProject("b/b.go", "package b; func B() {}");
+    ModificationTracker tracker = GoPackageModificationTracker.forDirectory(a.getParent());
+    long count = tracker.getModificationCount();
+
+    typeAtEnd(b, "\nfunc C() {}\n");
+    assertEquals(count, tracker.getModificationCount());
+
+    typeAtEnd(a, "\nfunc C() {}\n");
+    assertTrue(count < tracker.getModificationCount());
+  }
+
+  public void testCommentsAndBodiesDontChangePackage() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a\n\nfunc A() {\n  x := 1\n  _ = x\n}\n");
+    ModificationTracker tracker = GoPackageModificationTracker.forDirectory(a.getParent());
+    long count = tracker.getModificationCount();
+
+    typeAtEnd(a, "// comment\n");
+    assertEquals(count, tracker.getModificationCount());
+
+    myFixture.configureFromExistingVirtualFile(a.getVirtualFile());
+    myFixture.getEditor().getCaretModel().moveToOffset(a.getText().indexOf("_ = x"));
+    myFixture.type("y := x\n  _ = y\n  ");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertEquals(count, tracker.getModificationCount());
+  }
+
+  public void testAddingFileToPackage() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a");
+    ModificationTracker tracker = GoPackageModificationTracker.forDirectory(a.getParent());
+    long count = tracker.getModificationCount();
+    myFixture.addFileToProject("a/b.go", "package a");
+    assertTrue(count < tracker.getModificationCount());
+  }
+
+  public void testAddingNonGoFileToPackage() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a");
+    ModificationTracker tracker = GoPackageModificationTracker.forDirectory(a.getParent());
+    long count = tracker.getModificationCount();
+    myFixture.addFileToProject("a/b.txt", "text");
+    assertEquals(count, tracker.getModificationCount());
+  }
+
+  public void testDeletingPackageEvictsStamps() throws IOException {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a");
+    PsiFile b = myFixture.addFileToProject("a/b/b.go", "package b");
+    VirtualFile directory = a.getVirtualFile().getParent();
+    VirtualFile nested = b.getVirtualFile().getParent();
+    GoPackageModificationTracker tracker = GoPackageModificationTracker.getInstance(getProject());
+    assertTrue(tracker.getModificationCount(directory) > 0);
+    assertTrue(tracker.getModificationCount(nested) > 0);
+
+    WriteAction.run(() -> directory.delete(this));
+    assertEquals(0, tracker.getModificationCount(directory));
+    assertEquals(0, tracker.getModificationCount(nested));
+  }
+
+  private void typeAtEnd(@NotNull PsiFile file, @NotNull String text) {
+    myFixture.configureFromExistingVirtualFile(file.getVirtualFile());
+    myFixture.getEditor().getCaretModel().moveToOffset(myFixture.getEditor().getDocument().getTextLength());
+    myFixture.type(text);
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+  }
+}
@@ -19,6 +19,7 @@ package com.goide.sdk;
 import com.goide.GoCodeInsightFixtureTestCase;
 import com.goide.GoModuleType;
 import com.goide.project.GoApplicationLibrariesService;
+import com.goide.project.GoLibrariesService;
 import com.goide.project.GoModuleLibrariesInitializer;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.module.ModuleType;
@@ -27,6 +28,7 @@ import com.intellij.openapi.roots.impl.OrderEntryUtil;
 import com.intellij.openapi.roots.impl.libraries.LibraryEx;
 import com.intellij.openapi.roots.impl.libraries.LibraryTableBase;
 import com.intellij.openapi.roots.libraries.LibraryTablesRegistrar;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.ThrowableComputable;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VfsUtil;
@@ -181,6 +183,53 @@ public class GoPathLibraryTest extends GoCodeInsightFixtureTestCase {
     assertLibrary(Collections.singletonList(goPathContent.getUrl()), "temp:///src", contentRoot.getUrl());
   }
 
+  /**
+   * src <content root>
+   * gopath <gopath>
+   * - src
+   * -- test
+   * -- added
+   */
+  public void testUpdateLibraryOnAddingDirectoryToGoPath() throws IOException {
+    VirtualFile goPath = createGoPath();
+    VirtualFile src = runWriteAction(() -> goPath.createChildDirectory(this, "src"));
+    VirtualFile test = runWriteAction(() -> src.createChildDirectory(this, "test"));
+
+    GoApplicationLibrariesService.getInstance().setLibraryRootUrls(goPath.getUrl());
+    assertLibrary(Collections.singletonList(test.getUrl()), "temp:///src");
+
+    VirtualFile added = runWriteAction(() -> src.createChildDirectory(this, "added"));
+    assertLibrary(ContainerUtil.newHashSet(test.getUrl(), added.getUrl()), "temp:///src");
+
+    runWriteAction(() -> {
+      added.delete(this);
+      return null;
+    });
+    assertLibrary(Collections.singletonList(test.getUrl()), "temp:///src");
+  }
+
+  /**
+   * src <content root>
+   * gopath <gopath>
+   * - src
+   * -- test
+   */
+  public void testKeepLibraryWhenRootsAreNotChanged() throws IOException {
+    VirtualFile goPath = createGoPath();
+    VirtualFile test = runWriteAction(() -> goPath.createChildDirectory(this, "src").createChildDirectory(this, "test"));
+
+    GoApplicationLibrariesService.getInstance().setLibraryRootUrls(goPath.getUrl());
+    assertLibrary(Collections.singletonList(test.getUrl()), "temp:///src");
+
+    ModificationTracker tracker = ProjectRootManager.getInstance(getProject());
+    long count = tracker.getModificationCount();
+    ApplicationManager.getApplication().getMessageBus().syncPublisher(GoLibrariesService.LIBRARIES_TOPIC)
+      .librariesChanged(Collections.singletonList(goPath.getUrl()));
+    runWriteAction(() -> test.createChildDirectory(this, "nested"));
+    assertLibrary(Collections.singletonList(test.getUrl()), "temp:///src");
+    assertEquals(count, tracker.getModificationCount());
+  }
+
   private void addContentRoot(@NotNull VirtualFile contentRoot) {
     ModifiableRootModel model = ModuleRootManager.getInstance(myModule).getModifiableModel();
     try {
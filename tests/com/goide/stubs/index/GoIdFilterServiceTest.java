@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+@SuppressWarnings("ConstantConditions")
+public class GoIdFilterServiceTest extends GoCodeInsightFixtureTestCase {
+  public void testExistingFiles() {
+    VirtualFile production = myFixture.addFileToProject("a/a.go", "package a").getVirtualFile();
+    VirtualFile test = myFixture.addFileToProject("a/a_test.go", "package a").getVirtualFile();
+    assertProduction(production);
+    assertTest(test);
+  }
+
+  public void testCreatedFiles() {
+    assertProduction(myFixture.addFileToProject("a/a.go", "package a").getVirtualFile());
+    VirtualFile production = myFixture.addFileToProject("b/b.go", "package b").getVirtualFile();
+    VirtualFile test = myFixture.addFileToProject("b/b_test.go", "package b").getVirtualFile();
+    assertProduction(production);
+    assertTest(test);
+  }
+
+  public void testRenamedFile() throws IOException {
+    VirtualFile file = myFixture.addFileToProject("a/a.go", "package a").getVirtualFile();
+    assertProduction(file);
+    runWriteAction(() -> {
+      file.rename(this, "a_test.go");
+      return null;
+    });
+    assertTest(file);
+    runWriteAction(() -> {
+      file.rename(this, "b.go");
+      return null;
+    });
+    assertProduction(file);
+  }
+
+  public void testDeletedFile() throws IOException {
+    VirtualFile file = myFixture.addFileToProject("a/a.go", "package a").getVirtualFile();
+    assertProduction(file);
+    int id = GoIdFilter.getId(file);
+    runWriteAction(() -> {
+      file.delete(this);
+      return null;
+    });
+    assertFalse(GoIdFilter.getProductionFilter(getProject()).containsFileId(id));
+  }
+
+  public void testCopiedDirectory() throws IOException {
+    VirtualFile file = myFixture.addFileToProject("a/b/b.go", "package b").getVirtualFile();
+    VirtualFile target = myFixture.addFileToProject("c/c.go", "package c").getVirtualFile().getParent();
+    assertProduction(file);
+    VirtualFile copy = runWriteAction(() -> file.getParent().copy(this, target, "b"));
+    assertProduction(copy.findChild("b.go"));
+  }
+
+  private void assertProduction(@NotNull VirtualFile file) {
+    int id = GoIdFilter.getId(file);
+    assertTrue(GoIdFilter.getProductionFilter(getProject()).containsFileId(id));
+    assertFalse(GoIdFilter.getTestsFilter(getProject()).containsFileId(id));
+  }
+
+  private void assertTest(@NotNull VirtualFile file) {
+    int id = GoIdFilter.getId(file);
+    assertFalse(GoIdFilter.getProductionFilter(getProject()).containsFileId(id));
+    assertTrue(GoIdFilter.getTestsFilter(getProject()).containsFileId(id));
+  }
+
+  private static <T> T runWriteAction(@NotNull ThrowableComputable<T, IOException> computable) throws IOException {
+    return ApplicationManager.getApplication().runWriteAction(computable);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.util.GoTargetSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.ThreeState;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+public class GoPackageDirectoryIndexTest extends GoCodeInsightFixtureTestCase {
+  private static final GoTargetSystem LINUX = new GoTargetSystem("linux", "amd64", null, null, ThreeState.NO);
+
+  public void testDirectoryIsReportedOnce() {
+    myFixture.addFileToProject("a/http/a.go", "package http");
+    myFixture.addFileToProject("a/http/b.go", "package http");
+    myFixture.addFileToProject("b/http/a.go", "package http");
+    myFixture.addFileToProject("c/http/a.go", "package other");
+    assertSameElements(directories("http", null), "a/http", "b/http");
+  }
+
+  public void testBuildConstraints() {
+    myFixture.addFileToProject("windows/foo_windows.go", "package foo");
+    myFixture.addFileToProject("tagged/foo.go", "// +build windows\n\npackage foo");
+    myFixture.addFileToProject("cgo/foo.go", "package foo; import \"C\"");
+    myFixture.addFileToProject("mixed/foo_windows.go", "package foo");
+    myFixture.addFileToProject("mixed/foo_linux.go", "package foo");
+    assertSameElements(directories("foo", null), "windows", "tagged", "cgo", "mixed");
+    assertSameElements(directories("foo", LINUX), "mixed");
+  }
+
+  public void testIgnoredFiles() {
+    myFixture.addFileToProject("ignored/_foo.go", "package foo");
+    assertEmpty(directories("foo", null));
+  }
+
+  private List<String> directories(String packageName, @Nullable GoTargetSystem target) {
+    VirtualFile root = myFixture.getTempDirFixture().getFile("");
+    assertNotNull(root);
+    GlobalSearchScope scope = GlobalSearchScope.projectScope(getProject());
+    return ContainerUtil.map(GoPackageDirectoryIndex.getPackageDirectories(packageName, target, scope),
+                             directory -> directory.getPath().substring(root.getPath().length() + 1));
+  }
+}
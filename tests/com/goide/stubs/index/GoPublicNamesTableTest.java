@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.completion.GoCompletionUtil;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class GoPublicNamesTableTest extends GoCodeInsightFixtureTestCase {
+  private static final GoPublicNamesTable TABLE = new GoPublicNamesTable(ContainerUtil.newArrayList(
+    "fmt.Println", "fmt.Fprintln", "fmt.Printf", "http.ErrNotSupported", "io.ReadWriteSeeker", "os.O_RDONLY", "template.Template",
+    "zip.Reader", "x509.Certificate"));
+
+  public void testStartMatchesGoFirst() {
+    assertOrderedEquals(names("F"), "fmt.Fprintln", "fmt.Printf", "fmt.Println");
+  }
+
+  public void testWordMatches() {
+    assertOrderedEquals(names("Printl"), "fmt.Println");
+    assertOrderedEquals(names("Templat"), "template.Template");
+  }
+
+  public void testCamelHumps() {
+    assertOrderedEquals(names("RWS"), "io.ReadWriteSeeker");
+    assertOrderedEquals(names("io.RWS"), "io.ReadWriteSeeker");
+  }
+
+  public void testUnderscoreAndDigits() {
+    assertOrderedEquals(names("RDO"), "os.O_RDONLY");
+    assertOrderedEquals(names("x5"), "x509.Certificate");
+  }
+
+  public void testEmptyPrefix() {
+    assertSize(9, names(""));
+  }
+
+  public void testNoMatches() {
+    assertEmpty(names("Qwerty"));
+  }
+
+  public void testAliasedPackages() {
+    assertOrderedEquals(names("Printl", Collections.singletonList("http")), "fmt.Println", "http.ErrNotSupported");
+  }
+
+  @NotNull
+  private static List<String> names(@NotNull String prefix) {
+    return names(prefix, Collections.emptyList());
+  }
+
+  @NotNull
+  private static List<String> names(@NotNull String prefix, @NotNull Collection<String> packages) {
+    List<String> result = ContainerUtil.newArrayList();
+    TABLE.processNames(GoCompletionUtil.createPrefixMatcher(prefix), packages, new CommonProcessors.CollectProcessor<>(result));
+    return result;
+  }
+}
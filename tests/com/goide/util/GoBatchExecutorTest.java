@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class GoBatchExecutorTest extends GoCodeInsightFixtureTestCase {
+  public void testSplitByLength() {
+    List<String> paths = Arrays.asList("a.go", "b.go", "c.go", "d.go", "e.go");
+    List<List<String>> batches = GoBatchExecutor.split(paths, 14);
+    assertEquals(Arrays.asList(Arrays.asList("a.go", "b.go"), Arrays.asList("c.go", "d.go"), Collections.singletonList("e.go")), batches);
+  }
+
+  public void testLongPathGetsOwnBatch() {
+    List<List<String>> batches = GoBatchExecutor.split(Arrays.asList("a.go", "very/long/path/b.go", "c.go"), 10);
+    assertEquals(Arrays.asList(Collections.singletonList("a.go"), Collections.singletonList("very/long/path/b.go"),
+                               Collections.singletonList("c.go")), batches);
+  }
+
+  public void testNotBatched() {
+    assertSize(3, GoBatchExecutor.split(Arrays.asList("a.go", "b.go", "c.go"), 0));
+  }
+
+  public void testResultsPerFile() throws Exception {
+    if (SystemInfo.isWindows) return;
+    File dir = FileUtil.createTempDirectory("gofmt", null);
+    File stub = createStub(dir);
+    List<String> paths = ContainerUtil.newArrayList();
+    for (int i = 0; i < 1000; i++) {
+      paths.add(dir.getPath() + "/pkg" + i + "/" + (i == 500 ? "bad.go" : "file.go"));
+    }
+    Map<String, Boolean> result = execute(Collections.singletonList(paths), dir, stub, true);
+
+    assertEquals(paths.size(), result.size());
+    for (String path : paths) {
+      assertEquals(path, !path.endsWith("bad.go"), result.get(path).booleanValue());
+    }
+    List<String> invocations = getInvocations(dir);
+    assertSize(GoBatchExecutor.split(paths, GoBatchExecutor.MAX_COMMAND_LINE_LENGTH).size(), invocations);
+    assertTrue(invocations.size() < 10);
+  }
+
+  public void testGroupsDontShareProcess() throws Exception {
+    if (SystemInfo.isWindows) return;
+    File dir = FileUtil.createTempDirectory("gofmt", null);
+    File stub = createStub(dir);
+    List<String> a = Arrays.asList(dir.getPath() + "/a/a1.go", dir.getPath() + "/a/a2.go");
+    List<String> b = Collections.singletonList(dir.getPath() + "/b/b1.go");
+    execute(Arrays.asList(a, b), dir, stub, true);
+
+    List<String> invocations = getInvocations(dir);
+    assertSameElements(invocations, StringUtil.join(a, " "), b.get(0));
+  }
+
+  public void testWithoutBatchExecutor() throws Exception {
+    if (SystemInfo.isWindows) return;
+    File dir = FileUtil.createTempDirectory("gofmt", null);
+    File stub = createStub(dir);
+    List<String> paths = Arrays.asList(dir.getPath() + "/a.go", dir.getPath() + "/b.go", dir.getPath() + "/c.go");
+    Map<String, Boolean> result = execute(Collections.singletonList(paths), dir, stub, false);
+
+    assertSize(3, result.keySet());
+    assertSameElements(getInvocations(dir), paths);
+  }
+
+  /**
+   * Stands in for gofmt: records every invocation and complains about files containing `bad` in their names
+   */
+  @NotNull
+  private static File createStub(@NotNull File dir) throws IOException {
+    File stub = new File(dir, "gofmt");
+    FileUtil.writeToFile(stub, "#!/bin/sh\n" +
+                               "echo \"$@\" >> " + new File(dir, "log").getPath() + "\n" +
+                               "for f in \"$@\"; do case \"$f\" in *bad*) echo \"$f:1:1: expected 'package'\" >&2; exit 2;; esac; done\n");
+    assertTrue(stub.setExecutable(true));
+    return stub;
+  }
+
+  @NotNull
+  private Map<String, Boolean> execute(@NotNull List<List<String>> groups, @NotNull File dir, @NotNull File stub, boolean batched)
+    throws Exception {
+    return ApplicationManager.getApplication().executeOnPooledThread(
+      () -> GoBatchExecutor.execute(groups, batch -> batched ? createExecutor(dir, stub, batch) : null,
+                                    path -> createExecutor(dir, stub, Collections.singletonList(path)), null)).get();
+  }
+
+  @NotNull
+  private GoExecutor createExecutor(@NotNull File dir, @NotNull File stub, @NotNull List<String> paths) {
+    return GoExecutor.in(getProject(), null).withGoRoot(dir.getPath()).withExePath(stub.getPath())
+      .withParameters(ArrayUtil.toStringArray(paths)).showGoEnvVariables(false).disablePty();
+  }
+
+  @NotNull
+  private static List<String> getInvocations(@NotNull File dir) throws IOException {
+    return StringUtil.split(FileUtil.loadFile(new File(dir, "log")), "\n");
+  }
+}
@@ -79,6 +79,14 @@ public class GoBuildMatcherTest extends GoCodeInsightFixtureTestCase {
     assertTrue(matcher.matchBuildFlag("!windows,!foo"));
   }
 
+  public void testMatchBuildFlagsLines() {
+    GoBuildMatcher matcher = new GoBuildMatcher(new GoTargetSystem("linux", "amd64", "1.4", null, ThreeState.UNSURE));
+    checkMatchFile(matcher, true, "a.go", "// +build linux darwin\n// +build amd64");
+    checkMatchFile(matcher, false, "b.go", "// +build linux darwin\n// +build 386");
+    checkMatchFile(matcher, false, "c.go", "// +build linux,!amd64 windows");
+    checkMatchFile(matcher, true, "d.go", "// +build !\n");
+  }
+
   public void testMatchCompiler() {
     assertTrue(new GoBuildMatcher(new GoTargetSystem("linux", "amd64", "1.4", null, ThreeState.UNSURE)).matchBuildFlag("gc"));
     assertTrue(new GoBuildMatcher(new GoTargetSystem("linux", "amd64", "1.4", null, ThreeState.UNSURE)).matchBuildFlag("gccgo"));
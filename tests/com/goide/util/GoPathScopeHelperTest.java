@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.sdk.GoSdkService;
+import com.intellij.openapi.vfs.VirtualFile;
+
+public class GoPathScopeHelperTest extends GoCodeInsightFixtureTestCase {
+  public void testHelperIsSharedByFilesOfDirectory() {
+    VirtualFile a = myFixture.addFileToProject("a/a.go", "package a").getVirtualFile();
+    VirtualFile b = myFixture.addFileToProject("a/b.go", "package a").getVirtualFile();
+    VirtualFile c = myFixture.addFileToProject("c/c.go", "package c").getVirtualFile();
+    GoPathScopeHelper helper = GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), a);
+    assertSame(helper, GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), b));
+    assertNotSame(helper, GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), c));
+  }
+
+  public void testHelperIsDroppedOnStructureChange() {
+    VirtualFile a = myFixture.addFileToProject("a/a.go", "package a").getVirtualFile();
+    GoPathScopeHelper helper = GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), a);
+    myFixture.addFileToProject("a/vendor/v/v.go", "package v");
+    assertNotSame(helper, GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), a));
+  }
+
+  public void testInternalPackage() {
+    GoSdkService.setTestingSdkVersion("1.5", getTestRootDisposable());
+    VirtualFile internal = myFixture.addFileToProject("foo/internal/bar/bar.go", "package bar").getVirtualFile();
+    VirtualFile sibling = myFixture.addFileToProject("foo/baz/baz.go", "package baz").getVirtualFile();
+    VirtualFile outside = myFixture.addFileToProject("qux/qux.go", "package qux").getVirtualFile();
+    assertTrue(GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), sibling).couldBeReferenced(internal, sibling));
+    assertFalse(GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), outside).couldBeReferenced(internal, outside));
+  }
+
+  public void testTestFilesOfOtherPackage() {
+    VirtualFile a = myFixture.addFileToProject("foo/a.go", "package foo").getVirtualFile();
+    VirtualFile aTest = myFixture.addFileToProject("foo/a_test.go", "package foo").getVirtualFile();
+    VirtualFile b = myFixture.addFileToProject("bar/b.go", "package bar").getVirtualFile();
+    GoPathScopeHelper helper = GoPathScopeHelper.fromReferenceFile(getProject(), myFixture.getModule(), b);
+    assertTrue(helper.couldBeReferenced(a, b));
+    // the verdict for the directory is cached, file-level rules are still applied
+    assertFalse(helper.couldBeReferenced(aTest, b));
+  }
+}
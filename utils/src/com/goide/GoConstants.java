@@ -72,6 +72,7 @@ public class GoConstants {
   @NonNls public static final String DELVE_EXECUTABLE_NAME = "dlv";
 
   @NonNls public static final String GO_EXECUTABLE_NAME = "go";
+  @NonNls public static final String GOFMT_EXECUTABLE_NAME = "gofmt";
   public static final String BUILD_FLAG = "+build";
 
   public static final String LINUX_OS = "linux";